@@ -0,0 +1,93 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full request path through Tomcat, the security filter chain, Jackson and {@code AuthController}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class AuthControllerBenchmark {
+
+    private static final String EXISTING_EMAIL = "existing@bench.example.com";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI loginUri;
+    private URI registerUri;
+    private String loginBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start("--server.port=0");
+        context.getBean(UserService.class)
+                .registerUser(new User(EXISTING_EMAIL, BenchmarkApplication.PASSWORD, "Bench User"));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+        loginUri = URI.create("http://localhost:" + port + "/api/auth/login");
+        registerUri = URI.create("http://localhost:" + port + "/api/auth/register");
+        loginBody = json(EXISTING_EMAIL, BenchmarkApplication.PASSWORD, null);
+
+        int status = post(loginUri, loginBody);
+        if (status != 200) {
+            throw new IllegalStateException("Login warm-up request failed with status " + status);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loginUser() throws Exception {
+        return post(loginUri, loginBody);
+    }
+
+    @Benchmark
+    public int loginUserBadPassword() throws Exception {
+        return post(loginUri, json(EXISTING_EMAIL, "WrongPassword123", null));
+    }
+
+    @Benchmark
+    public int registerUser() throws Exception {
+        String email = "user" + sequence.incrementAndGet() + "@bench.example.com";
+        return post(registerUri, json(email, BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    private int post(URI uri, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String json(String email, String password, String fullName) {
+        StringBuilder sb = new StringBuilder("{\"email\":\"").append(email)
+                .append("\",\"password\":\"").append(password).append('"');
+        if (fullName != null) {
+            sb.append(",\"fullName\":\"").append(fullName).append('"');
+        }
+        return sb.append('}').toString();
+    }
+}
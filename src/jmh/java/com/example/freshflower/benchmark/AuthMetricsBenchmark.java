@@ -0,0 +1,61 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.service.AuthMetrics;
+import com.example.freshflower.service.AuthMetrics.Operation;
+import com.example.freshflower.service.AuthMetrics.Outcome;
+import com.example.freshflower.service.AuthMetrics.Phase;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead a login pays for {@link AuthMetrics}: three phase timings plus one outcome counter,
+ * against the same work without them. Uses the Prometheus registry the app runs with, so the
+ * histogram bucket updates are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AuthMetricsBenchmark {
+
+    // Stand-in for a phase's work, so nanoTime isn't measured against an empty body
+    private static final int WORK_TOKENS = 10;
+
+    private AuthMetrics metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = new AuthMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public void baseline() {
+        Blackhole.consumeCPU(WORK_TOKENS);
+        Blackhole.consumeCPU(WORK_TOKENS);
+        Blackhole.consumeCPU(WORK_TOKENS);
+    }
+
+    @Benchmark
+    public void instrumented() {
+        long start = metrics.start();
+        Blackhole.consumeCPU(WORK_TOKENS);
+        metrics.record(Phase.LOOKUP, start);
+
+        start = metrics.start();
+        Blackhole.consumeCPU(WORK_TOKENS);
+        metrics.record(Phase.HASH_VERIFY, start);
+
+        start = metrics.start();
+        Blackhole.consumeCPU(WORK_TOKENS);
+        metrics.record(Phase.SERIALIZE, start);
+
+        metrics.outcome(Operation.LOGIN, Outcome.SUCCESS);
+    }
+}
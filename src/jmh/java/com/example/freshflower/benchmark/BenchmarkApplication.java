@@ -0,0 +1,22 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.FreshflowerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the real application against the embedded H2 "bench" profile.
+ */
+final class BenchmarkApplication {
+
+    static final String PASSWORD = "BenchPassword123";
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(FreshflowerApplication.class)
+                .profiles("bench")
+                .logStartupInfo(false)
+                .run(args);
+    }
+}
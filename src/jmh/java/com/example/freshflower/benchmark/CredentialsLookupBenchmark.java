@@ -0,0 +1,53 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import com.example.freshflower.repository.UserRepository;
+import com.example.freshflower.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The database read behind login: the full {@link User} entity against the
+ * {@link UserCredentials} projection. Run with the default {@code -prof gc} to compare
+ * allocation per lookup; the user cache is bypassed by calling the repository directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CredentialsLookupBenchmark {
+
+    private static final String EXISTING_EMAIL = "existing@bench.example.com";
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--server.port=0");
+        context.getBean(UserService.class)
+                .registerUser(new User(EXISTING_EMAIL, BenchmarkApplication.PASSWORD, "Bench User"));
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> entity() {
+        return userRepository.findByEmailNormalized(EXISTING_EMAIL);
+    }
+
+    @Benchmark
+    public Optional<UserCredentials> projection() {
+        return userRepository.findCredentialsByEmailNormalized(EXISTING_EMAIL);
+    }
+}
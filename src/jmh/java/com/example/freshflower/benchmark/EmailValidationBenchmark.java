@@ -0,0 +1,39 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.service.EmailNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EmailNormalizer} against the {@code String.matches} check it replaced. Run with the
+ * default {@code -prof gc} to compare allocation per call as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+    @Param({"john.doe+flowers@example.com", "  John.Doe@Example.COM", "invalid-email"})
+    private String email;
+
+    private EmailNormalizer normalizer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        normalizer = new EmailNormalizer();
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+    }
+
+    @Benchmark
+    public String normalizer() {
+        return normalizer.normalize(email);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a failed login costs beyond the password check. {@code badPassword} should track
+ * {@code verifyOnly} (the bare BCrypt comparison), and {@code unknownUser} (a cached miss, no
+ * BCrypt) is the fixed overhead of the login path itself. Run with {@code -prof gc} to see the
+ * per-attempt allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FailedLoginBenchmark {
+
+    private static final String EXISTING_EMAIL = "existing@bench.example.com";
+    private static final String WRONG_PASSWORD = "Wrong" + BenchmarkApplication.PASSWORD;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private PasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Cheapest BCrypt, so the non-hashing part of the path is still visible next to it
+        context = BenchmarkApplication.start("--server.port=0", "--freshflower.password.strength=4");
+        userService = context.getBean(UserService.class);
+        passwordEncoder = context.getBean(PasswordEncoder.class);
+        passwordHash = userService.registerUser(new User(EXISTING_EMAIL, BenchmarkApplication.PASSWORD, "Bench User"))
+                .getPassword();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoginResult unknownUser() {
+        return userService.login("nobody@bench.example.com", BenchmarkApplication.PASSWORD);
+    }
+
+    @Benchmark
+    public LoginResult badPassword() {
+        return userService.login(EXISTING_EMAIL, WRONG_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyOnly() {
+        return passwordEncoder.matches(WRONG_PASSWORD, passwordHash);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.service.EmailNormalizer;
+import com.example.freshflower.service.LoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoginThrottle#tryAcquire} on its own, without Spring or HTTP. {@code spread}
+ * is a credential-stuffing run over many emails and addresses (mostly cache hits on existing
+ * keys); {@code hotKey} is every thread hammering one account from one address.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginThrottleBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private LoginThrottle throttle;
+    private String[] emails;
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        throttle = new LoginThrottle(true, Duration.ofMinutes(1), 10, 100, 100_000,
+                new EmailNormalizer(), new SimpleMeterRegistry());
+        emails = new String[KEYS];
+        addresses = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            emails[i] = "user" + i + "@bench.example.com";
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long spread() {
+        int i = ThreadLocalRandom.current().nextInt(KEYS);
+        return throttle.tryAcquire(emails[i], addresses[i]);
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return throttle.tryAcquire(emails[0], addresses[0]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.freshflower.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet (Tomcat + JDBC) vs reactive (Netty + R2DBC) stack with {@code clients} concurrent
+ * logins in flight, in a deliberately small heap so per-connection memory shows up as GC time.
+ * <p>
+ * {@code login=unknown} is pure DB wait; {@code login=valid} adds a strength-4 BCrypt verify on
+ * the hashing pool. The lookup cache is off so every login reaches the database. Add
+ * {@code -prof gc} to compare allocation per login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ReactiveStackBenchmark {
+
+    private static final String EMAIL = "stack@bench.example.com";
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    @Param({"unknown", "valid"})
+    public String login;
+
+    @Param({"1024"})
+    public int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientThreads;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--freshflower.password.strength=4",
+                "--freshflower.user-cache.enabled=false",
+                "--freshflower.hashing.queue-capacity=" + clients));
+        if ("reactive".equals(stack)) {
+            args.addAll(List.of("--spring.profiles.active=reactive",
+                    "--spring.r2dbc.url=r2dbc:h2:mem:///freshflower_bench_reactive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    "--spring.r2dbc.username=sa",
+                    "--spring.r2dbc.password=",
+                    "--spring.sql.init.mode=always",
+                    "--spring.sql.init.schema-locations=classpath:db/migration/h2/V1__create_users.sql,classpath:db/migration/h2/V2__add_login_activity.sql"));
+        } else {
+            // As in prod: with open-in-view the request would hold its JDBC connection through the hash wait
+            args.addAll(List.of("--spring.jpa.open-in-view=false",
+                    "--server.tomcat.max-connections=" + (clients * 2),
+                    "--server.tomcat.accept-count=" + clients));
+        }
+        context = BenchmarkApplication.start(args.toArray(String[]::new));
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/auth/";
+
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(clientThreads).connectTimeout(Duration.ofSeconds(30)).build();
+        client.send(post(base + "register", "{\"email\":\"" + EMAIL + "\",\"password\":\""
+                + BenchmarkApplication.PASSWORD + "\",\"fullName\":\"Stack User\"}"), HttpResponse.BodyHandlers.discarding());
+        String email = "valid".equals(login) ? EMAIL : "nobody@bench.example.com";
+        request = post(base + "login", "{\"email\":\"" + email + "\",\"password\":\"" + BenchmarkApplication.PASSWORD + "\"}");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientThreads.shutdownNow();
+        context.close();
+    }
+
+    // One op = `clients` logins issued concurrently and all answered with the expected status
+    @Benchmark
+    public int concurrentLogins() throws Exception {
+        int expected = "valid".equals(login) ? 200 : 401;
+        List<Future<HttpResponse<Void>>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            responses.add(clientThreads.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding())));
+        }
+        int answered = 0;
+        for (Future<HttpResponse<Void>> response : responses) {
+            if (response.get().statusCode() == expected) {
+                answered++;
+            }
+        }
+        return answered;
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import com.example.freshflower.service.EmailAlreadyExistsException;
+import com.example.freshflower.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registration before and after dropping the existsByEmail pre-check.
+ * <p>
+ * The {@code repository*} pair isolates the database round-trips (the password is hashed once
+ * up front); the {@code service*} pair is the full path, where BCrypt dominates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private String encodedPassword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--server.port=0");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        encodedPassword = context.getBean(PasswordEncoder.class).encode(BenchmarkApplication.PASSWORD);
+        userService.registerUser(new User("taken@bench.example.com", BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Before: existsByEmail then INSERT (two round-trips)
+    @Benchmark
+    public User repositoryCheckThenInsert() {
+        String email = nextEmail();
+        if (userRepository.existsByEmail(email)) {
+            return null;
+        }
+        return userRepository.saveAndFlush(new User(email, encodedPassword, "Bench User"));
+    }
+
+    // After: INSERT only, duplicates come back from the unique constraint (one round-trip)
+    @Benchmark
+    public User repositoryInsertOnly() {
+        return userRepository.saveAndFlush(new User(nextEmail(), encodedPassword, "Bench User"));
+    }
+
+    @Benchmark
+    public User serviceCheckThenRegister() {
+        String email = nextEmail();
+        if (userService.emailExists(email)) {
+            return null;
+        }
+        return userService.registerUser(new User(email, BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    @Benchmark
+    public User serviceRegister() {
+        return userService.registerUser(new User(nextEmail(), BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    // Duplicate sign-up: constraint violation plus the confirming existsByEmail
+    @Benchmark
+    public String serviceRegisterDuplicate() {
+        try {
+            userService.registerUser(new User("taken@bench.example.com", BenchmarkApplication.PASSWORD, "Bench User"));
+            return "registered";
+        } catch (EmailAlreadyExistsException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String nextEmail() {
+        return "reg" + sequence.incrementAndGet() + "@bench.example.com";
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a cold JVM to the first successful {@code POST /api/auth/login}: context refresh,
+ * schema handling, BCrypt calibration, the startup runners and one request through Tomcat.
+ * Every measurement is a fresh fork, so class loading and JIT warm-up are included.
+ * <p>
+ * {@code schema=update} is the dev setup (Hibernate diffs the schema); {@code schema=migrate}
+ * is the prod one (Flyway migrations, then {@code ddl-auto=validate}). To see what a CDS archive
+ * buys, pass it to the forks: {@code -jvmArgsAppend -XX:SharedArchiveFile=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    private static final String EMAIL = "startup@bench.example.com";
+
+    @Param({"update", "migrate"})
+    public String schema;
+
+    private String passwordHash;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Seeding the account must not cost a full-strength hash inside the measurement
+        passwordHash = new BCryptPasswordEncoder(4).encode(BenchmarkApplication.PASSWORD);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int firstLogin() throws Exception {
+        context = "migrate".equals(schema)
+                ? BenchmarkApplication.start("--server.port=0",
+                        "--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=validate")
+                : BenchmarkApplication.start("--server.port=0", "--spring.jpa.hibernate.ddl-auto=update");
+
+        User user = new User(EMAIL, passwordHash, "Startup User");
+        user.setEmailNormalized(EMAIL);
+        context.getBean(UserRepository.class).save(user);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + EMAIL + "\",\"password\":\"" + BenchmarkApplication.PASSWORD + "\"}"))
+                .build();
+        int status = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("First login failed with status " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.freshflower.benchmark;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-level cost of the auth hot paths: BCrypt, the email queries and the insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String EXISTING_EMAIL = "existing@bench.example.com";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--server.port=0");
+        userService = context.getBean(UserService.class);
+        userService.registerUser(new User(EXISTING_EMAIL, BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoginResult login() {
+        return userService.login(EXISTING_EMAIL, BenchmarkApplication.PASSWORD);
+    }
+
+    @Benchmark
+    public User registerUser() {
+        String email = "user" + sequence.incrementAndGet() + "@bench.example.com";
+        return userService.registerUser(new User(email, BenchmarkApplication.PASSWORD, "Bench User"));
+    }
+
+    @Benchmark
+    public boolean emailExists() {
+        return userService.emailExists(EXISTING_EMAIL);
+    }
+
+    @Benchmark
+    public boolean emailExistsUnknown() {
+        return userService.emailExists("unknown@bench.example.com");
+    }
+}
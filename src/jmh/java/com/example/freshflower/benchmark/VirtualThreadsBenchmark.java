@@ -0,0 +1,83 @@
+package com.example.freshflower.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads with {@code clients} concurrent logins in flight.
+ * <p>
+ * The unknown-user login is used because it is pure DB wait (no BCrypt). On embedded H2 the
+ * round-trip is tiny; pass {@code -jvmArgs -Dspring.datasource.url=...} (plus username, password,
+ * driver and dialect) to run it against a real MySQL instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"1024", "2048"})
+    public int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientThreads;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.max-connections=" + (clients * 2),
+                "--server.tomcat.accept-count=" + clients);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(clientThreads).connectTimeout(Duration.ofSeconds(30)).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"nobody@bench.example.com\",\"password\":\"" + BenchmarkApplication.PASSWORD + "\"}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientThreads.shutdownNow();
+        context.close();
+    }
+
+    // One op = `clients` logins issued concurrently and all answered
+    @Benchmark
+    public int concurrentLogins() throws Exception {
+        List<Future<HttpResponse<Void>>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            responses.add(clientThreads.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding())));
+        }
+        int unauthorized = 0;
+        for (Future<HttpResponse<Void>> response : responses) {
+            if (response.get().statusCode() == 401) {
+                unauthorized++;
+            }
+        }
+        return unauthorized;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.freshflower.loadtest;
+
+import com.example.freshflower.FreshflowerApplication;
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the app on H2 (profile {@code loadtest}), seeds accounts, warms up, then runs one
+ * open-model stage per rate in {@code loadtest.rates} with the configured register/login mix.
+ * <p>
+ * Writes {@code result.json} and one HdrHistogram percentile distribution per stage
+ * ({@code stage-<rate>.hgrm}) to {@code loadtest.output}, then gates the run against
+ * {@code loadtest.baseline}: the process exits non-zero (failing the Maven build) on a
+ * regression. {@code -Dloadtest.update-baseline=true} records this run as the new baseline.
+ * Baselines only compare like with like: record one per machine type that runs the gate.
+ */
+public final class LoadTest {
+
+    private static final int SEEDED_USERS = 1000;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        LoadTestReport report;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FreshflowerApplication.class)
+                .profiles("loadtest")
+                .logStartupInfo(false)
+                .run("--server.port=0");
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            URI baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+            OpenModelRunner runner = new OpenModelRunner(client, new Requests(baseUri, seedUsers(context)), settings.mix());
+
+            System.out.printf("Warm-up: %d/s for %s%n", settings.rates().get(0), settings.warmupDuration());
+            runner.run(settings.rates().get(0), settings.warmupDuration());
+
+            Files.createDirectories(settings.output());
+            System.out.printf("%8s %9s %7s %12s %9s %9s %9s %9s %9s%n",
+                    "rate/s", "requests", "errors", "throughput/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            List<StageResult> stages = new ArrayList<>();
+            for (int rate : settings.rates()) {
+                OpenModelRunner.StageRun run = runner.run(rate, settings.stageDuration());
+                StageResult stage = run.result();
+                stages.add(stage);
+                System.out.printf("%8d %9d %7d %12.1f %9.1f %9.1f %9.1f %9.1f %9.1f   p99 by operation: %s%n",
+                        stage.rate(), stage.requests(), stage.errors(), stage.throughput(), stage.p50Ms(),
+                        stage.p90Ms(), stage.p99Ms(), stage.p999Ms(), stage.maxMs(), stage.p99MsByOperation());
+                writeHistogram(run.latencies(), settings.output().resolve("stage-" + rate + ".hgrm"));
+            }
+            report = new LoadTestReport(stages);
+        } finally {
+            context.close();
+        }
+
+        json.writeValue(settings.output().resolve("result.json").toFile(), report);
+        Optional<LoadTestReport> baseline = Files.exists(settings.baseline())
+                ? Optional.of(json.readValue(settings.baseline().toFile(), LoadTestReport.class))
+                : Optional.empty();
+        List<String> violations = new RegressionGate(settings.maxP99Increase(), settings.maxThroughputDecrease())
+                .violations(report, baseline);
+
+        if (settings.updateBaseline()) {
+            json.writeValue(settings.baseline().toFile(), report);
+            System.out.println("Baseline updated: " + settings.baseline());
+        } else if (baseline.isEmpty()) {
+            System.out.println("No baseline at " + settings.baseline() + "; run with -Dloadtest.update-baseline=true to record one");
+        }
+        violations.forEach(violation -> System.out.println("REGRESSION " + violation));
+        if (!violations.isEmpty() && !settings.updateBaseline()) {
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    // Inserted directly with one shared hash: seeding shouldn't cost SEEDED_USERS BCrypt runs
+    private static List<String> seedUsers(ConfigurableApplicationContext context) {
+        String hash = context.getBean(PasswordEncoder.class).encode(Requests.PASSWORD);
+        List<User> users = new ArrayList<>(SEEDED_USERS);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            String email = "seeded" + i + "@loadtest.example.com";
+            User user = new User(email, hash, "Seeded User");
+            user.setEmailNormalized(email);
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+        return users.stream().map(User::getEmail).toList();
+    }
+
+    private static void writeHistogram(Histogram latencies, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Recorded in microseconds; the distribution is written in milliseconds
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
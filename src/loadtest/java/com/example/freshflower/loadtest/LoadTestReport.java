@@ -0,0 +1,14 @@
+package com.example.freshflower.loadtest;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * All stages of one run; also the format of the stored baseline.
+ */
+record LoadTestReport(List<StageResult> stages) {
+
+    Optional<StageResult> stage(int rate) {
+        return stages.stream().filter(stage -> stage.rate() == rate).findFirst();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.freshflower.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test knobs, read from {@code -Dloadtest.*} system properties (the {@code loadtest} Maven
+ * profile passes its properties through).
+ */
+record LoadTestSettings(
+        List<Integer> rates,
+        Duration stageDuration,
+        Duration warmupDuration,
+        TrafficMix mix,
+        Path baseline,
+        Path output,
+        double maxP99Increase,
+        double maxThroughputDecrease,
+        boolean updateBaseline) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Arrays.stream(property("rates", "10,20,40").split(",")).map(String::trim).map(Integer::valueOf).toList(),
+                DurationStyle.detectAndParse(property("stage-duration", "20s")),
+                DurationStyle.detectAndParse(property("warmup-duration", "10s")),
+                TrafficMix.parse(property("mix", "register:10,login:70,failed-login:20")),
+                Path.of(property("baseline", "src/loadtest/baseline.json")),
+                Path.of(property("output", "target/loadtest")),
+                Double.parseDouble(property("max-p99-increase", "0.25")),
+                Double.parseDouble(property("max-throughput-decrease", "0.10")),
+                Boolean.parseBoolean(property("update-baseline", "false")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.freshflower.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are sent on a fixed schedule ({@code rate} per second) whether or not
+ * earlier ones have been answered, the way independent users arrive. Latency is measured from
+ * the scheduled send time, so a stalled server shows up as latency instead of silently lowering
+ * the offered load (coordinated omission).
+ */
+final class OpenModelRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    // Beyond this many unanswered requests new ones count as errors rather than piling up
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    record StageRun(StageResult result, Histogram latencies) {}
+
+    private final HttpClient client;
+    private final Requests requests;
+    private final TrafficMix mix;
+
+    OpenModelRunner(HttpClient client, Requests requests, TrafficMix mix) {
+        this.client = client;
+        this.requests = requests;
+        this.mix = mix;
+    }
+
+    StageRun run(int rate, Duration duration) throws InterruptedException {
+        Histogram all = histogram();
+        Map<Operation, Histogram> byOperation = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            byOperation.put(operation, histogram());
+        }
+        AtomicLong sent = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLongArray perSecond = new AtomicLongArray((int) Math.max(1, duration.toSeconds()));
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long scheduled = start; scheduled - end < 0; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sent.incrementAndGet();
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                errors.incrementAndGet();
+                continue;
+            }
+            Operation operation = mix.next();
+            long sendTime = scheduled;
+            inFlight.incrementAndGet();
+            client.sendAsync(requests.create(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long done = System.nanoTime();
+                        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(done - sendTime), HIGHEST_TRACKABLE_MICROS);
+                        all.recordValue(micros);
+                        byOperation.get(operation).recordValue(micros);
+                        if (failure == null && response.statusCode() == operation.expectedStatus()) {
+                            // Answers arriving after the stage ended count for latency, not throughput
+                            int second = (int) TimeUnit.NANOSECONDS.toSeconds(done - start);
+                            if (second < perSecond.length()) {
+                                perSecond.incrementAndGet(second);
+                            }
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+        drain(inFlight);
+
+        List<Long> curve = new ArrayList<>(perSecond.length());
+        long completed = 0;
+        for (int i = 0; i < perSecond.length(); i++) {
+            curve.add(perSecond.get(i));
+            completed += perSecond.get(i);
+        }
+        Map<String, Double> p99ByOperation = new LinkedHashMap<>();
+        byOperation.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                p99ByOperation.put(operation.key(), millis(histogram.getValueAtPercentile(99)));
+            }
+        });
+        StageResult result = new StageResult(rate, sent.get(), errors.get(),
+                (double) completed / perSecond.length(),
+                millis(all.getValueAtPercentile(50)),
+                millis(all.getValueAtPercentile(90)),
+                millis(all.getValueAtPercentile(99)),
+                millis(all.getValueAtPercentile(99.9)),
+                millis(all.getMaxValue()),
+                p99ByOperation,
+                curve);
+        return new StageRun(result, all);
+    }
+
+    private static void drain(AtomicInteger inFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.freshflower.loadtest;
+
+/**
+ * The request kinds in the traffic mix, with the status a healthy node answers each with.
+ */
+enum Operation {
+
+    REGISTER("register", "/api/auth/register", 200),
+    LOGIN("login", "/api/auth/login", 200),
+    FAILED_LOGIN("failed-login", "/api/auth/login", 401);
+
+    private final String key;
+    private final String path;
+    private final int expectedStatus;
+
+    Operation(String key, String path, int expectedStatus) {
+        this.key = key;
+        this.path = path;
+        this.expectedStatus = expectedStatus;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String path() {
+        return path;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in loadtest.mix: " + key);
+    }
+}
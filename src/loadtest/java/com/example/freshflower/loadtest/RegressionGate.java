@@ -0,0 +1,47 @@
+package com.example.freshflower.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compares a run with the stored baseline, stage by stage (matched on rate). A stage fails when
+ * its p99 grew by more than {@code maxP99Increase} or its throughput fell by more than
+ * {@code maxThroughputDecrease}. Throughput only counts responses with the expected status, so
+ * a stage that starts failing requests shows up as a throughput regression.
+ */
+final class RegressionGate {
+
+    // p99 changes below this are timer noise at low latencies, not regressions
+    static final double P99_NOISE_FLOOR_MS = 5.0;
+
+    private final double maxP99Increase;
+    private final double maxThroughputDecrease;
+
+    RegressionGate(double maxP99Increase, double maxThroughputDecrease) {
+        this.maxP99Increase = maxP99Increase;
+        this.maxThroughputDecrease = maxThroughputDecrease;
+    }
+
+    List<String> violations(LoadTestReport current, Optional<LoadTestReport> baseline) {
+        List<String> violations = new ArrayList<>();
+        for (StageResult stage : current.stages()) {
+            Optional<StageResult> reference = baseline.flatMap(report -> report.stage(stage.rate()));
+            if (reference.isEmpty()) {
+                continue;
+            }
+            StageResult before = reference.get();
+            double p99Limit = Math.max(before.p99Ms() * (1 + maxP99Increase), before.p99Ms() + P99_NOISE_FLOOR_MS);
+            if (stage.p99Ms() > p99Limit) {
+                violations.add(String.format("%d/s: p99 %.1f ms exceeds %.1f ms (baseline %.1f ms)",
+                        stage.rate(), stage.p99Ms(), p99Limit, before.p99Ms()));
+            }
+            double throughputLimit = before.throughput() * (1 - maxThroughputDecrease);
+            if (stage.throughput() < throughputLimit) {
+                violations.add(String.format("%d/s: throughput %.1f/s below %.1f/s (baseline %.1f/s)",
+                        stage.rate(), stage.throughput(), throughputLimit, before.throughput()));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.freshflower.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the request for each {@link Operation}: registrations use fresh emails, logins pick one
+ * of the seeded accounts.
+ */
+final class Requests {
+
+    static final String PASSWORD = "LoadTestPassword123";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final List<String> seededEmails;
+    private final AtomicLong registrations = new AtomicLong();
+
+    Requests(URI baseUri, List<String> seededEmails) {
+        this.baseUri = baseUri;
+        this.seededEmails = seededEmails;
+    }
+
+    HttpRequest create(Operation operation) {
+        String body = switch (operation) {
+            case REGISTER -> "{\"email\":\"new" + registrations.incrementAndGet() + "@loadtest.example.com\",\"password\":\""
+                    + PASSWORD + "\",\"fullName\":\"Load Test\"}";
+            case LOGIN -> login(randomSeededEmail(), PASSWORD);
+            case FAILED_LOGIN -> login(randomSeededEmail(), "Wrong" + PASSWORD);
+        };
+        return HttpRequest.newBuilder(baseUri.resolve(operation.path()))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String randomSeededEmail() {
+        return seededEmails.get(ThreadLocalRandom.current().nextInt(seededEmails.size()));
+    }
+
+    private static String login(String email, String password) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+    }
+}
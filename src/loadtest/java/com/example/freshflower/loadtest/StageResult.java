@@ -0,0 +1,23 @@
+package com.example.freshflower.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One constant-rate stage: achieved throughput (responses with the expected status per second),
+ * latency percentiles in milliseconds measured from each request's scheduled send time, and the
+ * per-second completions that make up the throughput curve.
+ */
+record StageResult(
+        int rate,
+        long requests,
+        long errors,
+        double throughput,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs,
+        Map<String, Double> p99MsByOperation,
+        List<Long> completionsPerSecond) {
+}
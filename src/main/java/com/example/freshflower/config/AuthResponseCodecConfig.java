@@ -0,0 +1,80 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.controller.AuthResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link AuthResponse} bodies from their pre-encoded JSON instead of through Jackson.
+ * Spring Boot puts {@link HttpMessageConverter} beans ahead of its default converters (servlet
+ * stack), and custom codecs are consulted before the Jackson encoder (reactive stack).
+ */
+@Configuration
+public class AuthResponseCodecConfig {
+
+    @Bean
+    public HttpMessageConverter<AuthResponse> authResponseHttpMessageConverter() {
+        return new AbstractHttpMessageConverter<>(MediaType.APPLICATION_JSON) {
+            @Override
+            protected boolean supports(Class<?> clazz) {
+                return AuthResponse.class.isAssignableFrom(clazz);
+            }
+
+            @Override
+            protected boolean canRead(MediaType mediaType) {
+                return false;
+            }
+
+            @Override
+            protected AuthResponse readInternal(Class<? extends AuthResponse> clazz, HttpInputMessage inputMessage) {
+                throw new HttpMessageNotReadableException("AuthResponse is write-only", inputMessage);
+            }
+
+            @Override
+            protected void writeInternal(AuthResponse response, HttpOutputMessage outputMessage) throws IOException {
+                byte[] json = response.toJson();
+                outputMessage.getHeaders().setContentLength(json.length);
+                outputMessage.getBody().write(json);
+            }
+        };
+    }
+
+    @Bean
+    public CodecCustomizer authResponseCodecCustomizer() {
+        return configurer -> configurer.customCodecs().register(new AbstractEncoder<AuthResponse>(MediaType.APPLICATION_JSON) {
+            @Override
+            public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+                return AuthResponse.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+            }
+
+            @Override
+            public Flux<DataBuffer> encode(Publisher<? extends AuthResponse> input, DataBufferFactory bufferFactory,
+                                           ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+                return Flux.from(input).map(response -> encodeValue(response, bufferFactory, elementType, mimeType, hints));
+            }
+
+            @Override
+            public DataBuffer encodeValue(AuthResponse response, DataBufferFactory bufferFactory,
+                                          ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+                return bufferFactory.wrap(response.toJson());
+            }
+        });
+    }
+}
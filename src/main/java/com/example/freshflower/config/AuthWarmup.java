@@ -0,0 +1,166 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.controller.AuthController;
+import com.example.freshflower.controller.AuthResponse;
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.AuthMetrics;
+import com.example.freshflower.service.UserLookupCache;
+import com.example.freshflower.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warms the JIT, the connection pools and Hibernate's query plans before the instance takes
+ * traffic. Spring Boot only reports readiness (ACCEPTING_TRAFFIC on
+ * {@code /actuator/health/readiness}) once every ApplicationRunner has returned, so the load
+ * balancer keeps real users away until this is done.
+ * <p>
+ * Each round registers a synthetic user through {@link UserService} and logs it in through
+ * {@link AuthController} (success, bad password, unknown user) inside a transaction that is
+ * rolled back. Registration isn't driven through the controller: its async path inserts on a
+ * {@link com.example.freshflower.service.DatabaseWorkExecutor} thread, outside that transaction. Rounds stop at {@code freshflower.warmup.iterations}
+ * or {@code freshflower.warmup.max-duration}, whichever comes first.
+ */
+@Component
+@Profile("!reactive")
+public class AuthWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthWarmup.class);
+    private static final String PASSWORD = "Warmup-Password-123";
+    // A reserved TLD: no real account can collide with the synthetic ones
+    private static final String DOMAIN = "@warmup.invalid";
+
+    @Autowired
+    private AuthController authController;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectProvider<HikariDataSource> pools;
+
+    @Autowired
+    private ObjectProvider<ReadWriteRoutingDataSource> router;
+
+    @Autowired
+    private ObjectProvider<ShardRoutingDataSource> shards;
+
+    @Value("${freshflower.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${freshflower.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${freshflower.warmup.max-duration:15s}")
+    private Duration maxDuration;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            authMetrics.startFirstMinute(false);
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        prefillPools();
+
+        int rounds = 0;
+        try {
+            while (rounds < iterations && System.nanoTime() - deadline < 0) {
+                round(rounds++);
+            }
+        } catch (RuntimeException e) {
+            // Best effort: a failed warm-up must not keep the instance from starting
+            log.warn("Warm-up stopped after {} rounds: {}", rounds, e.toString());
+        }
+        log.info("Warm-up finished: {} rounds in {} ms", rounds, (System.nanoTime() - started) / 1_000_000);
+        authMetrics.startFirstMinute(true);
+    }
+
+    private void round(int round) {
+        // A fresh email per round, so the per-email login throttle never kicks in
+        String email = "warmup-" + round + DOMAIN;
+        String unknown = "unknown-" + round + DOMAIN;
+        try {
+            // Marked as warm-up, so the rolled-back user doesn't reach the caches or login activity
+            UserService.warmUp(() -> transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                userService.registerUser(new User(email, PASSWORD, "Warmup User"));
+                serialize(authController.loginUser(credentials(email, PASSWORD), (String) null));
+                serialize(authController.loginUser(credentials(email, "Wrong-" + PASSWORD), (String) null));
+                serialize(authController.loginUser(credentials(unknown, PASSWORD), (String) null));
+                userService.emailExists(email);
+                userService.findByEmail(email);
+            }));
+        } finally {
+            // The rolled-back user (and the miss) must not linger in the lookup cache
+            userLookupCache.invalidate(email);
+            userLookupCache.invalidate(unknown);
+        }
+    }
+
+    // Opens every pool's minimum-idle connections now instead of on the first real requests
+    private void prefillPools() {
+        List<HikariDataSource> all = new ArrayList<>(pools.orderedStream().toList());
+        router.ifAvailable(routing -> all.addAll(routing.getReplicas()));
+        shards.ifAvailable(routing -> all.addAll(routing.getAdditionalShards()));
+        for (HikariDataSource pool : all) {
+            int target = Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize());
+            List<Connection> held = new ArrayList<>(target);
+            try {
+                // Held all at once, so the pool has to open new connections rather than hand one back
+                while (held.size() < target) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Could not pre-fill connection pool {}: {}", pool.getPoolName(), e.getMessage());
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignored) {
+                        // returning to the pool; nothing to recover
+                    }
+                }
+            }
+        }
+    }
+
+    // The body encoding the response converter would do
+    private void serialize(CompletableFuture<ResponseEntity<AuthResponse>> response) {
+        response.join().getBody().toJson();
+    }
+
+    private static User credentials(String email, String password) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(password);
+        return user;
+    }
+}
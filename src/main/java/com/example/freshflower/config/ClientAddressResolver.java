@@ -0,0 +1,59 @@
+package com.example.freshflower.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The client address the login throttle keys on. Behind a load balancer every connection comes
+ * from the balancer, so when the peer is one of {@code freshflower.throttle.trusted-proxies} the
+ * {@code X-Forwarded-For} chain is walked from the right, skipping trusted hops, and the first
+ * untrusted address is the client. Entries further left were sent by the client and can be forged,
+ * so they are never used; a peer outside the trusted ranges is taken as the client itself.
+ */
+@Component
+public class ClientAddressResolver {
+
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(@Value("${freshflower.throttle.trusted-proxies:"
+            + "127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,fc00::/7}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(range -> !range.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(String peerAddress, String forwardedFor) {
+        if (peerAddress == null || forwardedFor == null || !isTrusted(peerAddress)) {
+            return peerAddress;
+        }
+        List<String> hops = Arrays.stream(forwardedFor.split(",")).map(String::trim).toList();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (!hop.isEmpty() && !isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return peerAddress;
+    }
+
+    private boolean isTrusted(String address) {
+        try {
+            for (IpAddressMatcher range : trustedProxies) {
+                if (range.matches(address)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IllegalArgumentException e) {
+            return false; // not an IP literal
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.freshflower.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the Flyway migrations at startup unless {@code freshflower.migrations.run-on-startup=false}.
+ * <p>
+ * Under Spring AOT the Flyway beans are fixed at build time, so {@code spring.flyway.enabled} can
+ * no longer switch them off; the CDS training run of the prod build (which has no database) uses
+ * this switch instead.
+ */
+@Configuration
+public class FlywayStartupConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${freshflower.migrations.run-on-startup:true}") boolean runOnStartup,
+            ObjectProvider<ShardRoutingDataSource> shards) {
+        return flyway -> {
+            if (runOnStartup) {
+                flyway.migrate();
+                // Flyway is configured for shard 0; the other shards get the same migrations
+                shards.ifAvailable(router -> router.getAdditionalShards().forEach(shard ->
+                        Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate()));
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.freshflower.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt cost for this machine at startup: the highest strength whose measured hash
+ * time stays within {@code freshflower.password.latency-budget}, never below the configured floor.
+ * Setting {@code freshflower.password.strength} skips the measurement and uses that value as-is.
+ */
+@Component
+public class PasswordEncoderCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123";
+    private static final int SAMPLES = 3;
+
+    private final Integer fixedStrength;
+    private final Duration latencyBudget;
+    private final int minStrength;
+    private final int maxStrength;
+
+    public PasswordEncoderCalibrator(@Value("${freshflower.password.strength:#{null}}") Integer fixedStrength,
+                                     @Value("${freshflower.password.latency-budget:100ms}") Duration latencyBudget,
+                                     @Value("${freshflower.password.min-strength:10}") int minStrength,
+                                     @Value("${freshflower.password.max-strength:14}") int maxStrength) {
+        this.fixedStrength = fixedStrength;
+        this.latencyBudget = latencyBudget;
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+    }
+
+    public int calibrate() {
+        if (fixedStrength != null) {
+            log.info("Using configured BCrypt strength {}", fixedStrength);
+            return fixedStrength;
+        }
+        int chosen = minStrength;
+        long chosenNanos = measure(minStrength);
+        for (int strength = minStrength + 1; strength <= maxStrength; strength++) {
+            // Each step doubles the work; don't bother measuring one that obviously won't fit
+            if (chosenNanos * 2 > latencyBudget.toNanos() * 1.5) {
+                break;
+            }
+            long nanos = measure(strength);
+            if (nanos > latencyBudget.toNanos()) {
+                break;
+            }
+            chosen = strength;
+            chosenNanos = nanos;
+        }
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, budget {} ms)",
+                chosen, chosenNanos / 1_000_000, latencyBudget.toMillis());
+        return chosen;
+    }
+
+    // Median of a few encodes after one warm-up run
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
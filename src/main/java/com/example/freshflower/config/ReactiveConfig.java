@@ -0,0 +1,32 @@
+package com.example.freshflower.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Infrastructure for the reactive profile. The pooled R2DBC {@link ConnectionFactory} comes from
+ * {@code spring.r2dbc.*} (sizes under {@code spring.r2dbc.pool.*}); JDBC, JPA and Flyway are
+ * excluded in {@code application-reactive.properties}.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    // Spring Data R2DBC would provide this; plain spring-r2dbc is all the repository needs
+    @Bean
+    @ConditionalOnMissingBean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    // Tomcat is on the classpath for the servlet stack and would win otherwise; Netty's event loop is the point here
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.freshflower.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a primary/replica router when
+ * {@code freshflower.read-replicas.enabled=true}. The primary keeps using {@code spring.datasource.*}
+ * (including {@code spring.datasource.hikari.*}); replicas are listed in
+ * {@code freshflower.read-replicas.urls}. Requires {@code spring.jpa.open-in-view=false}: a request-wide
+ * session would keep a replica connection opened by a read for the writes that follow it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "freshflower.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${freshflower.read-replicas.urls}") List<String> urls,
+            @Value("${freshflower.read-replicas.username:#{null}}") String username,
+            @Value("${freshflower.read-replicas.password:#{null}}") String password,
+            @Value("${freshflower.read-replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${freshflower.read-replicas.balancing:ROUND_ROBIN}") ReadWriteRoutingDataSource.Balancing balancing,
+            @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("freshflower.read-replicas.enabled requires spring.jpa.open-in-view=false");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(username != null ? username : properties.determineUsername());
+            config.setPassword(password != null ? password : properties.determinePassword());
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setReadOnly(true);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, balancing);
+    }
+
+    // Defers the physical connection (and so the routing decision) to the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
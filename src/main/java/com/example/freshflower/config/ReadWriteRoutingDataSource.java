@@ -0,0 +1,107 @@
+package com.example.freshflower.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a read replica and everything else (writes, and any work
+ * outside a transaction) to the primary.
+ * <p>
+ * The routing key is read when the physical connection is fetched, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: by the time the first statement runs the transaction's
+ * read-only flag is known. {@link #onPrimary} pins a block of reads to the primary when replica
+ * lag would give a wrong answer.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public enum Balancing { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final List<HikariDataSource> replicas;
+    private final String[] replicaKeys;
+    private final Balancing balancing;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Balancing balancing) {
+        this.replicas = List.copyOf(replicas);
+        this.replicaKeys = new String[replicas.size()];
+        this.balancing = balancing;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys[i] = "replica-" + i;
+            targets.put(replicaKeys[i], replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs {@code work} with every connection it opens routed to the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.length == 0
+                || PRIMARY_FORCED.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaKeys[balancing == Balancing.LEAST_CONNECTIONS ? leastBusy() : nextInTurn()];
+    }
+
+    private int nextInTurn() {
+        return Math.floorMod(next.getAndIncrement(), replicaKeys.length);
+    }
+
+    // Fewest connections in use; ties (the common idle case) fall back to round-robin order
+    private int leastBusy() {
+        int start = nextInTurn();
+        int best = start;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicaKeys.length; i++) {
+            int candidate = (start + i) % replicaKeys.length;
+            var pool = replicas.get(candidate).getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    // The primary is a Spring bean with its own lifecycle; the replica pools belong to this router
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
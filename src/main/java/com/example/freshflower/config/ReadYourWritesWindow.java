@@ -0,0 +1,41 @@
+package com.example.freshflower.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recently written emails for {@code freshflower.read-replicas.read-your-writes-window},
+ * so a login right after registration reads the primary instead of a replica that may not have
+ * the row yet. Without read replicas, or with a zero window, it does nothing.
+ */
+@Component
+public class ReadYourWritesWindow {
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWritesWindow(@Value("${freshflower.read-replicas.enabled:false}") boolean replicasEnabled,
+                                @Value("${freshflower.read-replicas.read-your-writes-window:0s}") Duration window) {
+        this.recentWrites = replicasEnabled && !window.isZero()
+                ? Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build()
+                : null;
+    }
+
+    public void recordWrite(String key) {
+        if (recentWrites != null && key != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    // Runs the query on the primary if key was written within the window, otherwise as routed
+    public <T> T read(String key, Supplier<T> query) {
+        if (recentWrites != null && key != null && recentWrites.getIfPresent(key) != null) {
+            return ReadWriteRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+}
@@ -1,31 +1,72 @@
 package com.example.freshflower.config;
 
+import com.example.freshflower.service.AccessTokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import java.util.Set;
 
 @Configuration
 public class SecurityConfig {
 
-    // Password encoder bean
+    // Password encoder bean (BCrypt cost calibrated to this machine's latency budget)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderCalibrator calibrator) {
+        return new BCryptPasswordEncoder(calibrator.calibrate());
     }
 
     // Security filter chain (new style for Spring Security 6+)
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Profile("!reactive")
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AccessTokenService accessTokenService,
+                                                   @Value("${freshflower.security.admin-user-ids:}") Set<Long> adminUserIds) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())  // disable CSRF using lambda
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // bearer tokens, no sessions
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService, adminUserIds), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll() // allow register & login
+                        .requestMatchers("/api/users/import").hasRole("ADMIN") // creates accounts with caller-supplied hashes
+                        .requestMatchers("/actuator/health/**").permitAll() // probes
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // metrics reveal login outcomes and queue depths
                         .anyRequest().authenticated()
                 );
 
         return http.build();
     }
+
+    // Same rules for the reactive profile's WebFlux stack
+    @Bean
+    @Profile("reactive")
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, AccessTokenService accessTokenService,
+                                                         @Value("${freshflower.security.admin-user-ids:}") Set<Long> adminUserIds) {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance()) // bearer tokens, no sessions
+                .addFilterAt(new TokenAuthenticationWebFilter(accessTokenService, adminUserIds), SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated()
+                )
+                .build();
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.freshflower.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+
+/**
+ * Keeps user ids globally unique across shards: shard {@code i} allocates from its own
+ * {@code users_seq}, and that sequence is moved up to the start of the shard's range
+ * ({@code i << RANGE_BITS}) before any traffic arrives. Ids keep their value when
+ * {@code ShardRebalancer} moves a row, and Hibernate's pooled optimizer may hand a block fetched on
+ * one shard to a row on another; both are fine because no two sequences ever issue the same value.
+ * <p>
+ * Runs after all singletons are created, so Flyway or Hibernate has already created the sequence.
+ */
+public class ShardIdRanges implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardIdRanges.class);
+
+    // 2^40 ids per shard; up to 8192 shards still fit in a JavaScript-safe integer
+    public static final int RANGE_BITS = 40;
+
+    private final ShardRoutingDataSource shards;
+
+    public ShardIdRanges(ShardRoutingDataSource shards) {
+        this.shards = shards;
+    }
+
+    public static long rangeStart(int shard) {
+        return (long) shard << RANGE_BITS;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Shard 0's range starts at 0, where the unsharded sequence already counts
+        for (int shard = 1; shard < shards.getShardCount(); shard++) {
+            reserve(shard, shards.getShard(shard));
+        }
+    }
+
+    private void reserve(int shard, DataSource dataSource) {
+        UserIdSequence sequence = new UserIdSequence(dataSource);
+        long start = rangeStart(shard) + UserIdSequence.GUARD;
+        long end = rangeStart(shard + 1);
+        long next = sequence.next();
+        if (next >= end) {
+            log.warn("Shard {}: users_seq is at {}, past the end of its id range {}", shard, next, end);
+        } else if (sequence.raiseTo(start)) {
+            log.info("Shard {}: users_seq moved to the start of its id range ({})", shard, start);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.freshflower.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections to the shard selected with {@link #onShard}, and to shard 0 outside of it.
+ * <p>
+ * Like {@link ReadWriteRoutingDataSource} this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}, and the shard must be chosen before the transaction
+ * runs its first statement: a transaction stays on the shard it started on.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+    private final List<HikariDataSource> ownedPools;
+
+    public ShardRoutingDataSource(DataSource first, List<HikariDataSource> others) {
+        this.shards = new ArrayList<>();
+        this.shards.add(first);
+        this.shards.addAll(others);
+        this.ownedPools = List.copyOf(others);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(first);
+    }
+
+    /**
+     * Runs {@code work} with every connection it opens routed to {@code shard}.
+     */
+    public static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    // Shards 1..n; shard 0 is the spring.datasource pool, a bean of its own
+    public List<HikariDataSource> getAdditionalShards() {
+        return ownedPools;
+    }
+
+    @Override
+    public void close() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+}
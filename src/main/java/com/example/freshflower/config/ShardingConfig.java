@@ -0,0 +1,76 @@
+package com.example.freshflower.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a shard router when
+ * {@code freshflower.sharding.enabled=true}. Shard 0 keeps using {@code spring.datasource.*}
+ * (including {@code spring.datasource.hikari.*}); the other shards are listed in
+ * {@code freshflower.sharding.urls}. Not combinable with read replicas, which also replace the
+ * DataSource, or with {@code spring.jpa.open-in-view}, whose request-wide session would keep the
+ * first shard's connection for every later statement.
+ */
+@Configuration
+@ConditionalOnProperty(name = "freshflower.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${freshflower.sharding.urls}") List<String> urls,
+            @Value("${freshflower.sharding.username:#{null}}") String username,
+            @Value("${freshflower.sharding.password:#{null}}") String password,
+            @Value("${freshflower.sharding.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("freshflower.sharding.enabled requires spring.jpa.open-in-view=false");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + (shards.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(username != null ? username : properties.determineUsername());
+            config.setPassword(password != null ? password : properties.determinePassword());
+            config.setMaximumPoolSize(maximumPoolSize);
+            shards.add(new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(primaryDataSource, shards);
+    }
+
+    @Bean
+    public ShardIdRanges shardIdRanges(ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardIdRanges(shardRoutingDataSource);
+    }
+
+    // Defers the physical connection (and so the shard choice) to the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
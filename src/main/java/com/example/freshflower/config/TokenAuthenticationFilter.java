@@ -0,0 +1,54 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.service.AccessTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} from the token alone,
+ * without touching the database. Requests with a missing or invalid token continue
+ * unauthenticated and are rejected by the authorization rules. Users listed in
+ * {@code freshflower.security.admin-user-ids} also get {@code ROLE_ADMIN}.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final AccessTokenService accessTokenService;
+    private final Set<Long> adminUserIds;
+
+    public TokenAuthenticationFilter(AccessTokenService accessTokenService, Set<Long> adminUserIds) {
+        this.accessTokenService = accessTokenService;
+        this.adminUserIds = adminUserIds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            accessTokenService.verify(header.substring(BEARER_PREFIX.length()).trim()).ifPresent(token -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(token.userId(), null,
+                        adminUserIds.contains(token.userId()) ? ADMIN : List.of()));
+                SecurityContextHolder.setContext(context);
+            });
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.service.AccessTokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reactive counterpart of {@link TokenAuthenticationFilter}: a valid bearer token authenticates
+ * the exchange (with {@code ROLE_ADMIN} for admin user ids), anything else continues unauthenticated.
+ */
+public class TokenAuthenticationWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+    private final Set<Long> adminUserIds;
+
+    public TokenAuthenticationWebFilter(AccessTokenService accessTokenService, Set<Long> adminUserIds) {
+        this.accessTokenService = accessTokenService;
+        this.adminUserIds = adminUserIds;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return accessTokenService.verify(header.substring(BEARER_PREFIX.length()).trim())
+                    .map(token -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                            UsernamePasswordAuthenticationToken.authenticated(token.userId(), null,
+                                    adminUserIds.contains(token.userId()) ? TokenAuthenticationFilter.ADMIN : List.of()))))
+                    .orElseGet(() -> chain.filter(exchange));
+        }
+        return chain.filter(exchange);
+    }
+}
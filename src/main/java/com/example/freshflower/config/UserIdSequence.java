@@ -0,0 +1,59 @@
+package com.example.freshflower.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+
+/**
+ * Reads and moves {@code users_seq} on the two databases there are migrations for: MySQL keeps it
+ * in a one-row table, H2 has sequences. The sequence only ever moves up.
+ */
+final class UserIdSequence {
+
+    // Larger than any allocationSize; a sequence value S owns the ids S-49..S of a pooled block
+    static final long GUARD = 1024;
+
+    private final JdbcTemplate jdbc;
+    private final boolean h2;
+
+    UserIdSequence(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.h2 = isH2(dataSource);
+    }
+
+    long next() {
+        return h2
+                ? jdbc.queryForObject("select base_value from information_schema.sequences"
+                        + " where sequence_name = 'USERS_SEQ'", Long.class)
+                : jdbc.queryForObject("select next_val from users_seq", Long.class);
+    }
+
+    // Returns whether the sequence was below the value and has been moved up to it
+    boolean raiseTo(long value) {
+        if (next() >= value) {
+            return false;
+        }
+        if (h2) {
+            jdbc.execute("alter sequence users_seq restart with " + value);
+            return true;
+        }
+        return jdbc.update("update users_seq set next_val = ? where next_val < ?", value, value) > 0;
+    }
+
+    // Highest id already taken in [from, to), or from - 1 if there is none
+    long maxIdIn(long from, long to) {
+        Long max = jdbc.queryForObject("select max(id) from users where id >= ? and id < ?", Long.class, from, to);
+        return max == null ? from - 1 : max;
+    }
+
+    private static boolean isH2(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+            return "H2".equals(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not read the database product", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.freshflower.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Moves {@code users_seq} past the ids already in {@code users} before any traffic arrives. A
+ * database whose rows predate the pooled generator (auto-increment ids, baselined at V1 or created
+ * by {@code ddl-auto=update}) gets the sequence at 1, and the first registrations would collide
+ * with existing rows. With sharding each shard's sequence is checked against its own id range.
+ * <p>
+ * Runs after all singletons are created, so Flyway or Hibernate has already created the sequence.
+ */
+@Component
+@Profile("!reactive")
+public class UserIdSequenceFloor implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdSequenceFloor.class);
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+
+    public UserIdSequenceFloor(DataSource dataSource, ObjectProvider<ShardRoutingDataSource> shards) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ShardRoutingDataSource sharded = shards.getIfAvailable();
+        if (sharded == null) {
+            // With read replicas this goes to the primary: there is no read-only transaction here
+            raisePastExistingIds("users", dataSource, 0, Long.MAX_VALUE);
+            return;
+        }
+        for (int shard = 0; shard < sharded.getShardCount(); shard++) {
+            raisePastExistingIds("shard " + shard, sharded.getShard(shard),
+                    ShardIdRanges.rangeStart(shard), ShardIdRanges.rangeStart(shard + 1));
+        }
+    }
+
+    private void raisePastExistingIds(String name, DataSource target, long from, long to) {
+        UserIdSequence sequence = new UserIdSequence(target);
+        long taken = sequence.maxIdIn(from, to);
+        if (taken < from) {
+            return;
+        }
+        long floor = taken + UserIdSequence.GUARD;
+        if (sequence.raiseTo(floor)) {
+            log.info("{}: users_seq moved past the highest existing id {} to {}", name, taken, floor);
+        }
+    }
+}
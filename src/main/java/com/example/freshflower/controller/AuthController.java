@@ -1,15 +1,30 @@
 package com.example.freshflower.controller;
 
+import com.example.freshflower.config.ClientAddressResolver;
 import com.example.freshflower.model.User;
+import com.example.freshflower.service.AccessTokenService;
+import com.example.freshflower.service.AuthMetrics;
+import com.example.freshflower.service.AuthMetrics.Operation;
+import com.example.freshflower.service.AuthMetrics.Outcome;
+import com.example.freshflower.service.AuthMetrics.Phase;
+import com.example.freshflower.service.EmailAlreadyExistsException;
+import com.example.freshflower.service.HashingCapacityExceededException;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.LoginThrottle;
 import com.example.freshflower.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:5173") // React dev server
 public class AuthController {
@@ -17,42 +32,116 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
-    // Register new user
-    @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody User user) {
-        Map<String, String> response = new HashMap<>();
+    @Autowired
+    private AccessTokenService accessTokenService;
 
-        try {
-            if (userService.emailExists(user.getEmail())) {
-                response.put("message", "Email already exists");
-                return ResponseEntity.badRequest().body(response);
-            }
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private AuthMetrics authMetrics;
 
-            userService.registerUser(user);
-            response.put("message", "User registered successfully");
-            return ResponseEntity.ok(response);
+    @Autowired
+    private ClientAddressResolver clientAddressResolver;
 
-        } catch (Exception e) {
-            response.put("message", "Registration failed: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
-        }
+    // Register new user (single insert; a duplicate email is reported by the unique constraint)
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<AuthResponse>> registerUser(@RequestBody User user) {
+        return userService.registerUserAsync(user)
+                .<ResponseEntity<AuthResponse>>thenApply(saved -> {
+                    long start = authMetrics.start();
+                    ResponseEntity<AuthResponse> ok = ResponseEntity.ok(MessageResponse.REGISTERED);
+                    authMetrics.record(Phase.SERIALIZE, start);
+                    return ok;
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = unwrap(ex);
+                    if (cause instanceof EmailAlreadyExistsException) {
+                        return ResponseEntity.badRequest().body(MessageResponse.of(cause.getMessage()));
+                    }
+                    if (cause instanceof HashingCapacityExceededException overloaded) {
+                        authMetrics.outcome(Operation.REGISTER, Outcome.OVERLOADED);
+                        return serviceUnavailable(overloaded);
+                    }
+                    return registrationFailed(cause);
+                });
     }
 
-    // Login user
+    // Login user (password check runs off the request thread); returns a signed access token
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody User loginRequest) {
-        Map<String, String> response = new HashMap<>();
+    public CompletableFuture<ResponseEntity<AuthResponse>> loginUser(@RequestBody User loginRequest, HttpServletRequest request) {
+        long start = authMetrics.start();
+        String client = clientAddressResolver.resolve(request.getRemoteAddr(),
+                request.getHeader(ClientAddressResolver.X_FORWARDED_FOR));
+        return loginUser(loginRequest, client)
+                .whenComplete((result, ex) -> authMetrics.recordLogin(start));
+    }
+
+    // Also driven directly by AuthWarmup, which has no servlet request and so no address to throttle
+    public CompletableFuture<ResponseEntity<AuthResponse>> loginUser(User loginRequest, String remoteAddress) {
+        boolean warmup = UserService.isWarmingUp();
+        // Rejected before the user lookup or BCrypt run, so throttled attempts cost almost nothing
+        long retryAfter = loginThrottle.tryAcquire(loginRequest.getEmail(), remoteAddress);
+        if (retryAfter > 0) {
+            if (!warmup) {
+                authMetrics.outcome(Operation.LOGIN, Outcome.THROTTLED);
+            }
+            return CompletableFuture.completedFuture(toResponse(new LoginResult.Locked(retryAfter)));
+        }
 
+        CompletableFuture<LoginResult> login;
         try {
-            User existingUser = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
+            login = userService.loginAsync(loginRequest.getEmail(), loginRequest.getPassword());
+        } catch (RuntimeException e) {
+            login = CompletableFuture.failedFuture(e);
+        }
 
-            response.put("message", "Login successful");
-            response.put("userId", existingUser.getId().toString());
-            return ResponseEntity.ok(response);
+        return login
+                .thenApply(this::toResponse)
+                .exceptionally(ex -> {
+                    Throwable cause = unwrap(ex);
+                    if (cause instanceof HashingCapacityExceededException overloaded) {
+                        if (!warmup) {
+                            authMetrics.outcome(Operation.LOGIN, Outcome.OVERLOADED);
+                        }
+                        return serviceUnavailable(overloaded);
+                    }
+                    return ResponseEntity.status(401).body(MessageResponse.of(cause.getMessage())); // Unauthorized
+                });
+    }
 
-        } catch (Exception e) {
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(401).body(response); // Unauthorized
-        }
+    private ResponseEntity<AuthResponse> toResponse(LoginResult result) {
+        return switch (result) {
+            case LoginResult.Success success -> {
+                // Token signing and the body; the bytes are written by AuthResponseCodecConfig
+                long start = authMetrics.start();
+                long userId = success.credentials().id();
+                LoginResponse body = LoginResponse.of(userId, accessTokenService.issue(userId),
+                        String.valueOf(accessTokenService.getTtl().toSeconds()));
+                ResponseEntity<AuthResponse> ok = ResponseEntity.ok(body);
+                authMetrics.record(Phase.SERIALIZE, start);
+                yield ok;
+            }
+            case LoginResult.UnknownUser unknown -> ResponseEntity.status(401).body(MessageResponse.of(unknown.message()));
+            case LoginResult.BadCredentials bad -> ResponseEntity.status(401).body(MessageResponse.of(bad.message()));
+            case LoginResult.Locked locked -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(locked.retryAfterSeconds()))
+                    .body(MessageResponse.of(locked.message()));
+        };
+    }
+
+    private ResponseEntity<AuthResponse> registrationFailed(Throwable e) {
+        return ResponseEntity.status(500).body(MessageResponse.of("Registration failed: " + e.getMessage()));
+    }
+
+    // Hashing queue is full: fail fast and tell the client when to come back
+    private ResponseEntity<AuthResponse> serviceUnavailable(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(MessageResponse.of(e.getMessage()));
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
     }
 }
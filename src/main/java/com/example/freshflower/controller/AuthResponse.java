@@ -0,0 +1,14 @@
+package com.example.freshflower.controller;
+
+/**
+ * Body of every {@code /api/auth} response. Each one knows its own UTF-8 JSON, so the
+ * auth-response converter (servlet) and encoder (reactive) write it without Jackson: constant
+ * bodies are encoded once, and a login only encodes its user id and token.
+ */
+public sealed interface AuthResponse permits MessageResponse, LoginResponse {
+
+    String message();
+
+    // The JSON body; may be a shared cached array, so callers must not modify it
+    byte[] toJson();
+}
@@ -0,0 +1,77 @@
+package com.example.freshflower.controller;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Just enough JSON writing for the flat string-valued auth responses.
+ */
+final class JsonBytes {
+
+    private JsonBytes() {}
+
+    static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] message(String message) {
+        return object("message", message);
+    }
+
+    // {"k1":"v1","k2":"v2",...} from alternating keys and values; null values are written as null
+    static byte[] object(String... keysAndValues) {
+        StringBuilder json = new StringBuilder(64).append('{');
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(json, keysAndValues[i]).append(':');
+            String value = keysAndValues[i + 1];
+            if (value == null) {
+                json.append("null");
+            } else {
+                appendString(json, value);
+            }
+        }
+        return utf8(json.append('}').toString());
+    }
+
+    static int put(byte[] target, int at, byte[] bytes) {
+        System.arraycopy(bytes, 0, target, at, bytes.length);
+        return at + bytes.length;
+    }
+
+    // Copies a string that needs no escaping (printable ASCII, so one byte per char) and returns
+    // the next position, or -1 as soon as a char would need escaping or more than one byte
+    static int putPlain(byte[] target, int at, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                return -1;
+            }
+            target[at++] = (byte) c;
+        }
+        return at;
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
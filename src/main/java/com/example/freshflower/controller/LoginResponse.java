@@ -0,0 +1,42 @@
+package com.example.freshflower.controller;
+
+/**
+ * Body of a successful login. Everything but {@code userId} and {@code token} is the same on
+ * every response, so that part of the JSON is encoded once.
+ */
+public record LoginResponse(String message, String userId, String token, String tokenType, String expiresIn)
+        implements AuthResponse {
+
+    private static final String MESSAGE = "Login successful";
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private static final byte[] PREFIX = JsonBytes.utf8(
+            "{\"message\":\"" + MESSAGE + "\",\"tokenType\":\"" + TOKEN_TYPE + "\",\"userId\":\"");
+    private static final byte[] TOKEN = JsonBytes.utf8("\",\"token\":\"");
+    private static final byte[] EXPIRES_IN = JsonBytes.utf8("\",\"expiresIn\":\"");
+    private static final byte[] SUFFIX = JsonBytes.utf8("\"}");
+
+    public static LoginResponse of(long userId, String token, String expiresIn) {
+        return new LoginResponse(MESSAGE, Long.toString(userId), token, TOKEN_TYPE, expiresIn);
+    }
+
+    @Override
+    public byte[] toJson() {
+        if (MESSAGE.equals(message) && TOKEN_TYPE.equals(tokenType)
+                && userId != null && token != null && expiresIn != null) {
+            // Ids, JWTs and second counts are plain ASCII: one exact-size array, no escaping
+            byte[] json = new byte[PREFIX.length + userId.length() + TOKEN.length + token.length()
+                    + EXPIRES_IN.length + expiresIn.length() + SUFFIX.length];
+            int at;
+            if ((at = JsonBytes.putPlain(json, JsonBytes.put(json, 0, PREFIX), userId)) >= 0
+                    && (at = JsonBytes.putPlain(json, JsonBytes.put(json, at, TOKEN), token)) >= 0
+                    && (at = JsonBytes.putPlain(json, JsonBytes.put(json, at, EXPIRES_IN), expiresIn)) >= 0) {
+                JsonBytes.put(json, at, SUFFIX);
+                return json;
+            }
+        }
+        // Something needs escaping (or isn't the standard message): the general, slower path
+        return JsonBytes.object("message", message, "tokenType", tokenType,
+                "userId", userId, "token", token, "expiresIn", expiresIn);
+    }
+}
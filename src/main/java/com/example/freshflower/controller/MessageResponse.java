@@ -0,0 +1,37 @@
+package com.example.freshflower.controller;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A body that is just {@code {"message": ...}}: registration results and every failed login.
+ */
+public record MessageResponse(String message) implements AuthResponse {
+
+    public static final MessageResponse REGISTERED = new MessageResponse("User registered successfully");
+
+    // Messages the endpoints answer with over and over; anything else is encoded per response
+    private static final Map<String, MessageResponse> CONSTANTS = Stream.of(
+                    REGISTERED,
+                    new MessageResponse("Email already exists"),
+                    new MessageResponse("User not found"),
+                    new MessageResponse("Invalid password"),
+                    new MessageResponse("Too many login attempts"))
+            .collect(Collectors.toUnmodifiableMap(MessageResponse::message, Function.identity()));
+    private static final Map<String, byte[]> ENCODED = CONSTANTS.keySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), JsonBytes::message));
+
+    // The shared instance for a constant message, so failed logins don't allocate a body
+    public static MessageResponse of(String message) {
+        MessageResponse constant = CONSTANTS.get(message);
+        return constant != null ? constant : new MessageResponse(message);
+    }
+
+    @Override
+    public byte[] toJson() {
+        byte[] encoded = ENCODED.get(message);
+        return encoded != null ? encoded : JsonBytes.message(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.freshflower.controller;
+
+import com.example.freshflower.config.ClientAddressResolver;
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.AccessTokenService;
+import com.example.freshflower.service.AuthMetrics;
+import com.example.freshflower.service.AuthMetrics.Operation;
+import com.example.freshflower.service.AuthMetrics.Outcome;
+import com.example.freshflower.service.AuthMetrics.Phase;
+import com.example.freshflower.service.EmailAlreadyExistsException;
+import com.example.freshflower.service.HashingCapacityExceededException;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.LoginThrottle;
+import com.example.freshflower.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * {@link AuthController} for the reactive profile: same paths, bodies and status codes, served
+ * from the event loop with BCrypt on the hashing pool.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "http://localhost:5173") // React dev server
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private ClientAddressResolver clientAddressResolver;
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponse>> registerUser(@RequestBody User user) {
+        return userService.registerUser(user)
+                .<ResponseEntity<AuthResponse>>map(saved -> {
+                    long start = authMetrics.start();
+                    ResponseEntity<AuthResponse> ok = ResponseEntity.ok(MessageResponse.REGISTERED);
+                    authMetrics.record(Phase.SERIALIZE, start);
+                    return ok;
+                })
+                .onErrorResume(ex -> {
+                    if (ex instanceof EmailAlreadyExistsException) {
+                        return Mono.just(ResponseEntity.badRequest().body(MessageResponse.of(ex.getMessage())));
+                    }
+                    if (ex instanceof HashingCapacityExceededException overloaded) {
+                        authMetrics.outcome(Operation.REGISTER, Outcome.OVERLOADED);
+                        return Mono.just(serviceUnavailable(overloaded));
+                    }
+                    return Mono.just(ResponseEntity.status(500)
+                            .body(MessageResponse.of("Registration failed: " + ex.getMessage())));
+                });
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> loginUser(@RequestBody User loginRequest, ServerHttpRequest request) {
+        long start = authMetrics.start();
+
+        // Rejected before the user lookup or BCrypt run, so throttled attempts cost almost nothing
+        long retryAfter = loginThrottle.tryAcquire(loginRequest.getEmail(), remoteAddress(request));
+        if (retryAfter > 0) {
+            authMetrics.outcome(Operation.LOGIN, Outcome.THROTTLED);
+            return Mono.just(toResponse(new LoginResult.Locked(retryAfter)));
+        }
+
+        return userService.login(loginRequest.getEmail(), loginRequest.getPassword())
+                .<ResponseEntity<AuthResponse>>map(this::toResponse)
+                .onErrorResume(ex -> {
+                    if (ex instanceof HashingCapacityExceededException overloaded) {
+                        authMetrics.outcome(Operation.LOGIN, Outcome.OVERLOADED);
+                        return Mono.just(serviceUnavailable(overloaded));
+                    }
+                    return Mono.just(ResponseEntity.status(401).body(MessageResponse.of(ex.getMessage()))); // Unauthorized
+                })
+                .doFinally(signal -> authMetrics.recordLogin(start));
+    }
+
+    private ResponseEntity<AuthResponse> toResponse(LoginResult result) {
+        return switch (result) {
+            case LoginResult.Success success -> {
+                long start = authMetrics.start();
+                long userId = success.credentials().id();
+                LoginResponse body = LoginResponse.of(userId, accessTokenService.issue(userId),
+                        String.valueOf(accessTokenService.getTtl().toSeconds()));
+                ResponseEntity<AuthResponse> ok = ResponseEntity.ok(body);
+                authMetrics.record(Phase.SERIALIZE, start);
+                yield ok;
+            }
+            case LoginResult.UnknownUser unknown -> ResponseEntity.status(401).body(MessageResponse.of(unknown.message()));
+            case LoginResult.BadCredentials bad -> ResponseEntity.status(401).body(MessageResponse.of(bad.message()));
+            case LoginResult.Locked locked -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(locked.retryAfterSeconds()))
+                    .body(MessageResponse.of(locked.message()));
+        };
+    }
+
+    // Hashing queue is full: fail fast and tell the client when to come back
+    private ResponseEntity<AuthResponse> serviceUnavailable(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(MessageResponse.of(e.getMessage()));
+    }
+
+    private String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        String peer = address == null || address.getAddress() == null ? null : address.getAddress().getHostAddress();
+        return clientAddressResolver.resolve(peer, request.getHeaders().getFirst(ClientAddressResolver.X_FORWARDED_FOR));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.freshflower.controller;
+
+import com.example.freshflower.service.ImportFormat;
+import com.example.freshflower.service.ImportReport;
+import com.example.freshflower.service.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/users")
+public class UserImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    // Bulk import (NDJSON or CSV body); answers with a per-row error report
+    @PostMapping(value = "/import", consumes = {ImportFormat.NDJSON_MEDIA_TYPE, ImportFormat.CSV_MEDIA_TYPE})
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        try {
+            ImportReport report = userImportService.importUsers(body, ImportFormat.fromContentType(contentType));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
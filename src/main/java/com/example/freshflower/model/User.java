@@ -1,19 +1,28 @@
 package com.example.freshflower.model;
 
 import jakarta.persistence.*;   // ✅ Correct for Spring Boot 3.x
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users") // "user" is reserved in many SQL dialects
 public class User {
 
+    // Pooled sequence (a table on MySQL) instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 100)
     private String email;
 
+    // Lower-cased, trimmed, punycode domain: what login and duplicate checks query. Nullable only
+    // until EmailNormalizedBackfill has filled rows created before the column existed.
+    @Column(name = "email_normalized", unique = true, length = 100)
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String password;
 
@@ -23,6 +32,14 @@ public class User {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Login activity, written behind by LoginActivityRecorder rather than through this entity
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private LocalDateTime lastLoginAt;
+
+    @ColumnDefault("0")
+    @Column(name = "login_count", nullable = false, insertable = false, updatable = false)
+    private long loginCount;
+
     public User() {}
 
     public User(String email, String password, String fullName) {
@@ -43,6 +60,9 @@ public class User {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
+    public String getEmailNormalized() { return emailNormalized; }
+    public void setEmailNormalized(String emailNormalized) { this.emailNormalized = emailNormalized; }
+
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
@@ -51,4 +71,8 @@ public class User {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getLastLoginAt() { return lastLoginAt; }
+
+    public long getLoginCount() { return loginCount; }
 }
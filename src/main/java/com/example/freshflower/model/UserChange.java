@@ -0,0 +1,34 @@
+package com.example.freshflower.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per committed change to a user, written in the same transaction as the change
+ * (UserChangeLog) and tailed by every instance (UserChangePoller) to invalidate its caches.
+ */
+@Entity
+@Table(name = "user_changes", indexes = @Index(name = "idx_user_changes_changed_at", columnList = "changed_at"))
+public class UserChange {
+
+    // IDENTITY rather than a pooled sequence: pollers tail ids in order, so every instance has to
+    // draw them from the same counter
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "email_normalized", nullable = false, length = 100)
+    private String emailNormalized;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public UserChange() {}
+
+    public Long getId() { return id; }
+
+    public String getEmailNormalized() { return emailNormalized; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
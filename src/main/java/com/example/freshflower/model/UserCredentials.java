@@ -0,0 +1,7 @@
+package com.example.freshflower.model;
+
+/**
+ * The part of a users row that login needs. Loaded with a JPQL constructor expression, so it is
+ * never a managed entity: no persistence-context entry and no dirty-checking snapshot.
+ */
+public record UserCredentials(Long id, String email, String passwordHash) {}
@@ -0,0 +1,160 @@
+package com.example.freshflower.repository;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link UserRepository} for the reactive profile, on R2DBC.
+ * <p>
+ * Ids come from the same {@code users_seq} as Hibernate's pooled generator and are handed out in
+ * the same blocks (a sequence value {@code S} owns ids {@code S-49..S}), and writes append to
+ * {@code user_changes} like {@code UserChangeLog}, so servlet and reactive nodes can share one
+ * database. Reactive nodes don't tail that log: their cache only catches up with other nodes'
+ * writes through its TTLs. Lookups go by {@code email_normalized}; rows a servlet node hasn't
+ * backfilled yet are only reachable through the raw {@code email} column, as in {@link UserRepository}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    // Must match allocationSize on User's @SequenceGenerator
+    private static final long ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final boolean sequenceTable;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveUserRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        // MySQL has no sequences; Hibernate emulates users_seq with a one-row table there
+        this.sequenceTable = connectionFactory.getMetadata().getName().toLowerCase().contains("mysql");
+    }
+
+    public Mono<UserCredentials> findCredentialsByEmailNormalized(String emailNormalized) {
+        return databaseClient.sql("select id, email, password from users where email_normalized = :email")
+                .bind("email", emailNormalized)
+                .map((row, metadata) -> new UserCredentials(
+                        row.get("id", Long.class), row.get("email", String.class), row.get("password", String.class)))
+                .one();
+    }
+
+    public Mono<UserCredentials> findCredentialsByEmail(String email) {
+        return databaseClient.sql("select id, email, password from users where email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> new UserCredentials(
+                        row.get("id", Long.class), row.get("email", String.class), row.get("password", String.class)))
+                .one();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from users where email = :email limit 1")
+                .bind("email", email)
+                .map((row, metadata) -> 1)
+                .first()
+                .hasElement();
+    }
+
+    // Whether any row still waits for the email_normalized backfill
+    public Mono<Boolean> existsByEmailNormalizedIsNull() {
+        return databaseClient.sql("select 1 from users where email_normalized is null limit 1")
+                .map((row, metadata) -> 1)
+                .first()
+                .hasElement();
+    }
+
+    public Mono<Boolean> existsByEmailNormalized(String emailNormalized) {
+        return databaseClient.sql("select 1 from users where email_normalized = :email limit 1")
+                .bind("email", emailNormalized)
+                .map((row, metadata) -> 1)
+                .first()
+                .hasElement();
+    }
+
+    public Mono<User> insert(User user) {
+        return nextId().flatMap(id -> {
+            LocalDateTime createdAt = LocalDateTime.now();
+            return databaseClient.sql("insert into users (id, email, email_normalized, password, full_name, created_at)"
+                            + " values (:id, :email, :emailNormalized, :password, :fullName, :createdAt)")
+                    .bind("id", id)
+                    .bind("email", user.getEmail())
+                    .bind("emailNormalized", user.getEmailNormalized())
+                    .bind("password", user.getPassword())
+                    .bind("fullName", user.getFullName())
+                    .bind("createdAt", createdAt)
+                    .fetch()
+                    .rowsUpdated()
+                    .then(Mono.fromSupplier(() -> {
+                        user.setId(id);
+                        user.setCreatedAt(createdAt);
+                        return user;
+                    }));
+        });
+    }
+
+    // Compare-and-set on the old hash, like UserRepository.updatePasswordHash
+    public Mono<Long> updatePasswordHash(Long id, String oldHash, String newHash) {
+        return databaseClient.sql("update users set password = :newHash where id = :id and password = :oldHash")
+                .bind("newHash", newHash)
+                .bind("id", id)
+                .bind("oldHash", oldHash)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // The row UserChangePoller tails on servlet nodes; write it in the transaction of the users write
+    public Mono<Void> recordChange(String emailNormalized) {
+        return databaseClient.sql("insert into user_changes (email_normalized, changed_at) values (:email, :changedAt)")
+                .bind("email", emailNormalized)
+                .bind("changedAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Mono<Long> nextId() {
+        IdBlock current = ids.get();
+        long id = current.next.getAndIncrement();
+        if (id <= current.hi) {
+            return Mono.just(id);
+        }
+        // Block used up. Concurrent callers may each fetch one; the losers' ids are just skipped.
+        return nextSequenceValue().map(hi -> {
+            IdBlock block = new IdBlock(Math.max(1, hi - ALLOCATION_SIZE + 1), hi);
+            long first = block.next.getAndIncrement();
+            ids.set(block);
+            return first;
+        });
+    }
+
+    private Mono<Long> nextSequenceValue() {
+        if (!sequenceTable) {
+            return databaseClient.sql("select next value for users_seq")
+                    .map((row, metadata) -> row.get(0, Long.class))
+                    .one();
+        }
+        // Same connection for both statements, so last_insert_id() is the value this update set
+        return databaseClient.inConnection(connection ->
+                Mono.from(connection.createStatement(
+                                "update users_seq set next_val = last_insert_id(next_val + " + ALLOCATION_SIZE + ")").execute())
+                        .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                        .then(Mono.from(connection.createStatement("select last_insert_id()").execute()))
+                        .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, Long.class))))
+                        // Hibernate reads next_val before bumping it; that earlier value is the block's top
+                        .map(updated -> updated - ALLOCATION_SIZE));
+    }
+
+    private record IdBlock(AtomicLong next, long hi) {
+        IdBlock(long first, long hi) {
+            this(new AtomicLong(first), hi);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.freshflower.repository;
+
+import com.example.freshflower.model.UserChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+    // Read-only, so with a read replica the log is tailed there: a change row only becomes
+    // visible together with the users row it describes
+    @Transactional(readOnly = true)
+    @Query("select max(c.id) from UserChange c")
+    Long findMaxId();
+
+    @Transactional(readOnly = true)
+    List<UserChange> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    List<UserChange> findByIdIn(Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select distinct c.emailNormalized from UserChange c where c.changedAt >= :since")
+    List<String> findEmailsChangedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from UserChange c where c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,13 +1,70 @@
 package com.example.freshflower.repository;
 
 import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Lookups are read-only transactions, which the routing DataSource sends to a read replica
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
+    @Transactional(readOnly = true)
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Point lookups on the unique email_normalized index; callers pass EmailNormalizer output
+    @Transactional(readOnly = true)
+    Optional<User> findByEmailNormalized(String emailNormalized);
+    @Transactional(readOnly = true)
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Login reads only id and hash; a DTO projection skips entity hydration and the session
+    @Transactional(readOnly = true)
+    @Query("select new com.example.freshflower.model.UserCredentials(u.id, u.email, u.password) "
+            + "from User u where u.emailNormalized = :emailNormalized")
+    Optional<UserCredentials> findCredentialsByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    // Batched re-check of restored cache entries (UserCacheSnapshot)
+    @Transactional(readOnly = true)
+    @Query("select new com.example.freshflower.model.UserCredentials(u.id, u.email, u.password) "
+            + "from User u where u.emailNormalized in :emails")
+    List<UserCredentials> findCredentialsByEmailNormalizedIn(@Param("emails") Collection<String> emails);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.freshflower.model.UserCredentials(u.id, u.email, u.password) "
+            + "from User u where u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+    List<String> findExistingNormalizedEmails(@Param("emails") Collection<String> emails);
+
+    // Backfill of email_normalized: keyset pages of rows still missing it
+    interface IdAndEmail {
+        Long getId();
+        String getEmail();
+    }
+
+    boolean existsByEmailNormalizedIsNull();
+
+    List<IdAndEmail> findByEmailNormalizedIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update User u set u.emailNormalized = :emailNormalized where u.id = :id and u.emailNormalized is null")
+    int setEmailNormalized(@Param("id") Long id, @Param("emailNormalized") String emailNormalized);
+
+    // Compare-and-set so a rehash can't overwrite a password changed in the meantime
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+}
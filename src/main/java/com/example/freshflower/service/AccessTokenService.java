@@ -0,0 +1,180 @@
+package com.example.freshflower.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies stateless HS256 JWT access tokens, so authenticated requests need neither
+ * a session lookup nor a BCrypt check.
+ * <p>
+ * Keys are configured as {@code kid:base64-secret} pairs in {@code freshflower.token.keys}; new
+ * tokens are signed with {@code freshflower.token.active-key-id} and every configured key is
+ * accepted for verification, which is how keys are rotated. Recently verified tokens are kept in
+ * a small LRU so a busy client doesn't pay for an HMAC and a JSON parse on every request.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    public record AccessToken(long userId, Instant expiresAt) {}
+
+    private record SigningKey(String id, String encodedHeader, Mac prototype) {}
+
+    private final Map<String, SigningKey> keysByHeader = new HashMap<>();
+    private final SigningKey activeKey;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, AccessToken> verified;
+
+    @Autowired
+    public AccessTokenService(@Value("${freshflower.token.keys:}") String keys,
+                              @Value("${freshflower.token.active-key-id:}") String activeKeyId,
+                              @Value("${freshflower.token.ttl:15m}") Duration ttl,
+                              @Value("${freshflower.token.verified-cache-size:10000}") long verifiedCacheSize,
+                              ObjectMapper objectMapper) {
+        this(keys, activeKeyId, ttl, verifiedCacheSize, objectMapper, Clock.systemUTC());
+    }
+
+    AccessTokenService(String keys, String activeKeyId, Duration ttl, long verifiedCacheSize,
+                       ObjectMapper objectMapper, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.verified = Caffeine.newBuilder().maximumSize(verifiedCacheSize).build();
+
+        if (keys == null || keys.isBlank()) {
+            // Fine for a single dev instance; tokens won't survive a restart or work across nodes
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            addKey("local", secret);
+            this.activeKey = keysByHeader.values().iterator().next();
+            log.warn("No freshflower.token.keys configured; using a random signing key for this instance only");
+            return;
+        }
+        for (String entry : keys.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Token keys must be 'kid:base64-secret' pairs");
+            }
+            byte[] secret = Base64.getDecoder().decode(parts[1].trim());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("Token key '" + parts[0] + "' must be at least 256 bits");
+            }
+            addKey(parts[0].trim(), secret);
+        }
+        String activeId = activeKeyId == null || activeKeyId.isBlank()
+                ? keys.split(",")[0].split(":", 2)[0].trim() : activeKeyId.trim();
+        this.activeKey = keysByHeader.values().stream()
+                .filter(key -> key.id().equals(activeId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Active token key '" + activeId + "' is not configured"));
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(long userId) {
+        long now = clock.instant().getEpochSecond();
+        String payload = "{\"sub\":\"" + userId + "\",\"iat\":" + now + ",\"exp\":" + (now + ttl.toSeconds()) + "}";
+        String signingInput = activeKey.encodedHeader() + "." + encode(payload.getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + encode(sign(activeKey, signingInput));
+    }
+
+    // Empty when the token is malformed, signed with an unknown key, tampered with or expired
+    public Optional<AccessToken> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        AccessToken cached = verified.getIfPresent(token);
+        if (cached == null) {
+            cached = parseAndVerify(token);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            verified.put(token, cached);
+        }
+        if (!clock.instant().isBefore(cached.expiresAt())) {
+            verified.invalidate(token);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    private AccessToken parseAndVerify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return null;
+        }
+        // Headers are fixed per key, so the encoded header identifies the key without parsing it
+        SigningKey key = keysByHeader.get(token.substring(0, firstDot));
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] signature = BASE64URL_DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(key, token.substring(0, lastDot)))) {
+                return null;
+            }
+            JsonNode claims = objectMapper.readTree(BASE64URL_DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            return new AccessToken(Long.parseLong(claims.path("sub").asText()),
+                    Instant.ofEpochSecond(claims.path("exp").asLong()));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private void addKey(String id, byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + id + "\"}";
+            SigningKey key = new SigningKey(id, encode(header.getBytes(StandardCharsets.UTF_8)), mac);
+            keysByHeader.put(key.encodedHeader(), key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static byte[] sign(SigningKey key, String signingInput) {
+        try {
+            // Mac instances aren't thread-safe; a clone of the initialised prototype is cheap
+            Mac mac = (Mac) key.prototype().clone();
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return BASE64URL.encodeToString(bytes);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.freshflower.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase timers and per-outcome counters for register and login.
+ * <p>
+ * {@code freshflower.auth.phase{phase}} publishes a percentile histogram (bounded to 50µs..10s so
+ * the bucket count stays small), which Prometheus turns into p50/p99 per phase. Every meter is
+ * registered up front and held in an array, so recording is a nanoTime delta plus a bucket
+ * increment, with no registry lookup or tag allocation on the request path.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Phase { LOOKUP, HASH_VERIFY, HASH_ENCODE, PERSIST, SERIALIZE }
+
+    public enum Operation { LOGIN, REGISTER }
+
+    public enum Outcome { SUCCESS, UNKNOWN_USER, BAD_PASSWORD, VALIDATION_FAILURE, DUPLICATE_EMAIL, THROTTLED, OVERLOADED }
+
+    private static final long FIRST_MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final Timer[] phases = new Timer[Phase.values().length];
+    private final Counter[][] outcomes = new Counter[Operation.values().length][Outcome.values().length];
+    private volatile Timer firstMinute;
+    private volatile long firstMinuteEnds;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Phase phase : Phase.values()) {
+            phases[phase.ordinal()] = Timer.builder("freshflower.auth.phase")
+                    .tag("phase", tagValue(phase))
+                    .description("Time spent in each phase of register and login")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(50_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                outcomes[operation.ordinal()][outcome.ordinal()] = Counter.builder("freshflower.auth.outcomes")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .description("Register and login attempts by result")
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    // Pair with record(phase, start); cheaper than a Timer.Sample, which allocates
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void record(Phase phase, long startNanos) {
+        phases[phase.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void outcome(Operation operation, Outcome outcome) {
+        outcomes[operation.ordinal()][outcome.ordinal()].increment();
+    }
+
+    /**
+     * Starts {@code freshflower.auth.login.first-minute}: end-to-end login latency for the next
+     * minute, tagged with whether the instance was warmed up first, so deploys with and without
+     * warm-up can be compared. Logins before this call (the warm-up itself) aren't recorded.
+     */
+    public void startFirstMinute(boolean warmedUp) {
+        firstMinute = Timer.builder("freshflower.auth.login.first-minute")
+                .tag("warmup", String.valueOf(warmedUp))
+                .description("Login latency during the first minute after startup")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        firstMinuteEnds = System.nanoTime() + FIRST_MINUTE_NANOS;
+    }
+
+    public void recordLogin(long startNanos) {
+        Timer timer = firstMinute;
+        long now = System.nanoTime();
+        if (timer != null && now - firstMinuteEnds < 0) {
+            timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.freshflower.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking database work that follows a password hash (the insert after an async
+ * registration, the update after a rehash), so {@link PasswordHashingExecutor}'s CPU-sized pool
+ * only hashes and never waits on a connection. Sized like the connection pool, which bounds it anyway.
+ * The queue is bounded like the hashing one: once it is full new work fails fast with
+ * {@link HashingCapacityExceededException}, which callers already answer with 503 and Retry-After.
+ */
+@Component
+public class DatabaseWorkExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    public DatabaseWorkExecutor(@Value("${freshflower.database-work.threads:10}") int threads,
+                                @Value("${freshflower.database-work.queue-capacity:64}") int queueCapacity,
+                                @Value("${freshflower.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new DatabaseWorkThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // A CompletableFuture stage handed to a full executor completes exceptionally with this
+    @Override
+    public void execute(Runnable command) {
+        try {
+            executor.execute(command);
+        } catch (RejectedExecutionException e) {
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class DatabaseWorkThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "database-work-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
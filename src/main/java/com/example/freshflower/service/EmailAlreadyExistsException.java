@@ -0,0 +1,11 @@
+package com.example.freshflower.service;
+
+/**
+ * Thrown when registration hits the unique email constraint.
+ */
+public class EmailAlreadyExistsException extends RuntimeException {
+
+    public EmailAlreadyExistsException() {
+        super("Email already exists");
+    }
+}
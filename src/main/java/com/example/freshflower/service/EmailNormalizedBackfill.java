@@ -0,0 +1,168 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.config.ReadWriteRoutingDataSource;
+import com.example.freshflower.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills {@code users.email_normalized} for rows created before the column existed, in keyset
+ * pages of {@code freshflower.email-backfill.batch-size} rows, one transaction per page.
+ * <p>
+ * Until it completes, {@link UserService} falls back to the raw email column for lookups that
+ * miss. Rows whose normalized email collides with another account (e.g. {@code Foo@x.com} and
+ * {@code foo@x.com}) or isn't a valid address are logged and left empty; they need a manual merge,
+ * and the backfill only counts as complete (ending the fallback) once a run skips nothing.
+ */
+@Component
+@Profile("!reactive")
+public class EmailNormalizedBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailNormalizedBackfill.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Value("${freshflower.email-backfill.batch-size:1000}")
+    private int batchSize;
+
+    // Ids listed in the summary log line; every skipped row also gets its own warning
+    private static final int MAX_LOGGED_IDS = 100;
+
+    private volatile boolean complete;
+    private volatile long skipped;
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // Rows the last run left without email_normalized
+    public long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Collision checks and the paging must see our own updates, so no replica reads here
+        List<Long> skippedIds = ReadWriteRoutingDataSource.onPrimary(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (int shard = 0; shard < userShards.count(); shard++) {
+                userShards.onShard(shard, () -> {
+                    backfill(ids);
+                    return null;
+                });
+            }
+            return ids;
+        });
+        skipped = skippedIds.size();
+        complete = skippedIds.isEmpty();
+        if (!complete) {
+            log.warn("email_normalized left unset for {} users {}{}; lookups keep falling back to the raw email"
+                            + " until they are merged and the backfill runs again", skippedIds.size(),
+                    skippedIds.subList(0, Math.min(skippedIds.size(), MAX_LOGGED_IDS)),
+                    skippedIds.size() > MAX_LOGGED_IDS ? " (first " + MAX_LOGGED_IDS + ")" : "");
+        }
+    }
+
+    private void backfill(List<Long> skippedIds) {
+        if (!userRepository.existsByEmailNormalizedIsNull()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long afterId = 0;
+        long updated = 0;
+        int skippedBefore = skippedIds.size();
+        List<UserRepository.IdAndEmail> page;
+        do {
+            page = userRepository.findByEmailNormalizedIsNullAndIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            Map<Long, String> normalized = normalize(page);
+            for (UserRepository.IdAndEmail row : page) {
+                if (!normalized.containsKey(row.getId())) {
+                    skippedIds.add(row.getId());
+                }
+            }
+            try {
+                updated += transactionTemplate.execute(status -> update(normalized));
+            } catch (DataIntegrityViolationException e) {
+                // A colliding registration raced the page; isolate it row by row
+                for (Map.Entry<Long, String> row : normalized.entrySet()) {
+                    try {
+                        updated += transactionTemplate.execute(status -> update(Map.of(row.getKey(), row.getValue())));
+                    } catch (DataIntegrityViolationException collision) {
+                        log.warn("User {}: normalized email {} is already taken; left unset", row.getKey(), row.getValue());
+                        skippedIds.add(row.getKey());
+                    }
+                }
+            }
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == batchSize);
+
+        log.info("email_normalized backfill finished: {} rows updated, {} skipped in {} ms",
+                updated, skippedIds.size() - skippedBefore, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Map<Long, String> normalize(List<UserRepository.IdAndEmail> page) {
+        Map<Long, String> byId = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (UserRepository.IdAndEmail row : page) {
+            String normalized = emailNormalizer.normalizeExisting(row.getEmail());
+            if (normalized == null) {
+                log.warn("User {}: stored email is not a valid address; email_normalized left unset", row.getId());
+            } else if (!seen.add(normalized)) {
+                log.warn("User {}: normalized email {} collides with another row in this page; left unset",
+                        row.getId(), normalized);
+            } else {
+                byId.put(row.getId(), normalized);
+            }
+        }
+        if (seen.isEmpty()) {
+            return byId;
+        }
+        Set<String> taken = new HashSet<>(userRepository.findExistingNormalizedEmails(seen));
+        byId.entrySet().removeIf(row -> {
+            if (taken.contains(row.getValue())) {
+                log.warn("User {}: normalized email {} already belongs to another user; left unset",
+                        row.getKey(), row.getValue());
+                return true;
+            }
+            return false;
+        });
+        return byId;
+    }
+
+    private long update(Map<Long, String> normalized) {
+        long count = 0;
+        for (Map.Entry<Long, String> row : normalized.entrySet()) {
+            count += userRepository.setEmailNormalized(row.getKey(), row.getValue());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.freshflower.service;
+
+import org.springframework.stereotype.Component;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Validates and canonicalises email addresses in one pass over the characters.
+ * <p>
+ * The canonical form is trimmed and lower-cased, and an internationalised domain is converted to
+ * its ASCII (punycode) form, so {@code Foo@Example.com} and {@code foo@example.com} are the same
+ * account. An address that is already canonical is returned as the same instance: the common
+ * case allocates nothing, unlike {@code String.matches}, which compiles a Pattern every call.
+ * <p>
+ * The local part keeps the rule the service has always enforced ({@code [A-Za-z0-9+_.-]}); the
+ * domain must be dot-separated labels of letters, digits and hyphens (or non-ASCII letters).
+ * Accounts registered under the original, looser rule are still reachable through
+ * {@link #normalizeExisting}.
+ */
+@Component
+public class EmailNormalizer {
+
+    private static final int MAX_LOCAL_LENGTH = 64;
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final int MAX_LENGTH = 254;
+
+    public boolean isValid(String email) {
+        return normalize(email) != null;
+    }
+
+    /**
+     * Returns the canonical form of {@code email}, or {@code null} when it isn't a valid address.
+     */
+    public String normalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int at = -1;
+        int labelStart = -1;
+        boolean upperCase = false;
+        boolean nonAscii = false;
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            if (at < 0) {
+                if (c == '@') {
+                    if (i == start || i - start > MAX_LOCAL_LENGTH) {
+                        return null;
+                    }
+                    at = i;
+                    labelStart = i + 1;
+                } else if (c >= 'A' && c <= 'Z') {
+                    upperCase = true;
+                } else if (!isLocalChar(c)) {
+                    return null;
+                }
+            } else if (c == '.') {
+                if (!isValidLabel(email, labelStart, i)) {
+                    return null;
+                }
+                labelStart = i + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                upperCase = true;
+            } else if (c > 0x7F) {
+                if (!Character.isLetterOrDigit(c) && !Character.isSurrogate(c)) {
+                    return null;
+                }
+                nonAscii = true;
+            } else if (!isDomainChar(c)) {
+                return null;
+            }
+        }
+        if (at < 0 || !isValidLabel(email, labelStart, end)) {
+            return null;
+        }
+
+        if (nonAscii) {
+            return normalizeInternational(email.substring(start, at), email.substring(at + 1, end));
+        }
+        if (end - start > MAX_LENGTH) {
+            return null;
+        }
+        if (!upperCase) {
+            return start == 0 && end == email.length() ? email : email.substring(start, end);
+        }
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            chars[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Like {@link #normalize}, but also accepts an address the original rule
+     * ({@code ^[A-Za-z0-9+_.-]+@(.+)$}) let through and the domain check now rejects, such as
+     * {@code john@my_domain.com}; that is only trimmed and lower-cased. For finding and keying
+     * existing accounts, never for accepting new ones. {@code null} when neither rule accepts it.
+     */
+    public String normalizeExisting(String email) {
+        String normalized = normalize(email);
+        if (normalized != null || email == null) {
+            return normalized;
+        }
+        String trimmed = email.trim();
+        int at = trimmed.indexOf('@');
+        if (at <= 0 || at == trimmed.length() - 1 || trimmed.indexOf('\n') >= 0) {
+            return null;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = trimmed.charAt(i);
+            if (!isLocalChar(c) && !(c >= 'A' && c <= 'Z')) {
+                return null;
+            }
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    // Rare path: let the JDK apply the IDNA rules (case folding, label checks) to the domain
+    private String normalizeInternational(String local, String domain) {
+        String asciiDomain;
+        try {
+            asciiDomain = IDN.toASCII(domain, IDN.USE_STD3_ASCII_RULES);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String normalized = local + "@" + asciiDomain;
+        return normalized.length() > MAX_LENGTH ? null : normalize(normalized);
+    }
+
+    private static boolean isValidLabel(String email, int from, int to) {
+        int length = to - from;
+        return length > 0 && length <= MAX_LABEL_LENGTH
+                && email.charAt(from) != '-' && email.charAt(to - 1) != '-';
+    }
+
+    private static boolean isLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-';
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.freshflower.service;
+
+/**
+ * Thrown when the password hashing queue, or the database work queue behind it, is full and the
+ * request should be retried later.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        // No stack trace: this is thrown on every rejected request during overload
+        super("Server is busy, please retry later", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
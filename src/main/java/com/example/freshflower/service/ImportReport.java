@@ -0,0 +1,11 @@
+package com.example.freshflower.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import: counts plus one entry per rejected row (capped).
+ */
+public record ImportReport(long imported, long failed, List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String email, String message) {}
+}
@@ -0,0 +1,246 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code users.last_login_at} and {@code users.login_count} up to date without an UPDATE on
+ * the login path. A successful login only puts an event into a lock-free ring buffer of
+ * {@code freshflower.login-activity.buffer-size} slots; when it is full the event is dropped and
+ * counted, so memory stays bounded and logins never wait.
+ * <p>
+ * A single background thread drains the buffer every {@code flush-interval}, or as soon as
+ * {@code batch-size} events are waiting, merges the events per user and writes one batched
+ * UPDATE per shard. Whatever is still buffered is flushed on shutdown.
+ * <p>
+ * Servlet profile only: logins served by reactive nodes are not recorded
+ * ({@code freshflower.login-activity.enabled=false} in application-reactive.properties).
+ */
+@Component
+@Profile("!reactive")
+public class LoginActivityRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginActivityRecorder.class);
+
+    // Order-independent, so nodes flushing the same user in any order keep the latest login
+    private static final String UPDATE = "update users set login_count = login_count + ?,"
+            + " last_login_at = case when last_login_at is null or last_login_at < ? then ? else last_login_at end"
+            + " where id = ?";
+
+    private record LoginEvent(long userId, String email, long atMillis) {}
+
+    private static final class Activity {
+        final String email;
+        long logins;
+        long lastAtMillis;
+
+        Activity(String email) {
+            this.email = email;
+        }
+    }
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final MpmcRingBuffer<LoginEvent> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserShards userShards;
+    private final EmailNormalizer emailNormalizer;
+
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter lost;
+    private final Counter rowsUpdated;
+    private final Timer flushTimer;
+
+    public LoginActivityRecorder(@Value("${freshflower.login-activity.enabled:true}") boolean enabled,
+                                 @Value("${freshflower.login-activity.buffer-size:65536}") int bufferSize,
+                                 @Value("${freshflower.login-activity.batch-size:1000}") int batchSize,
+                                 @Value("${freshflower.login-activity.flush-interval:500ms}") Duration flushInterval,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 UserShards userShards,
+                                 EmailNormalizer emailNormalizer,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.buffer = new MpmcRingBuffer<>(bufferSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userShards = userShards;
+        this.emailNormalizer = emailNormalizer;
+
+        this.recorded = Counter.builder("freshflower.login.activity.events")
+                .tag("result", "recorded").description("Successful logins queued for the write-behind flush")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("freshflower.login.activity.events")
+                .tag("result", "dropped").description("Successful logins not tracked because the buffer was full")
+                .register(meterRegistry);
+        this.lost = Counter.builder("freshflower.login.activity.events")
+                .tag("result", "failed").description("Logins drained but not written because the flush failed")
+                .register(meterRegistry);
+        this.rowsUpdated = Counter.builder("freshflower.login.activity.rows")
+                .description("users rows updated by login activity flushes")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("freshflower.login.activity.flush")
+                .description("Time to drain the buffer and write one flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("freshflower.login.activity.queue.depth", buffer, MpmcRingBuffer::size)
+                .description("Login events waiting for the next flush")
+                .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long interval = flushInterval.toNanos();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(UserCredentials user) {
+        if (!enabled) {
+            return;
+        }
+        if (!buffer.offer(new LoginEvent(user.id(), user.email(), System.currentTimeMillis()))) {
+            dropped.increment();
+            return;
+        }
+        recorded.increment();
+        // Don't wait for the timer once a full batch is waiting; one request at a time is enough
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Writes everything buffered so far; returns the number of login events drained.
+     */
+    public synchronized long flush() {
+        flushRequested.set(false);
+        long total = 0;
+        int drained;
+        do {
+            long start = System.nanoTime();
+            Map<Long, Activity> byUser = new HashMap<>();
+            drained = drain(byUser);
+            if (drained > 0) {
+                write(byUser);
+                total += drained;
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } while (drained == batchSize);
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        if (enabled) {
+            log.info("Flushed {} pending login events on shutdown", flush());
+        }
+    }
+
+    private int drain(Map<Long, Activity> byUser) {
+        int drained = 0;
+        LoginEvent event;
+        while (drained < batchSize && (event = buffer.poll()) != null) {
+            drained++;
+            String email = event.email();
+            Activity activity = byUser.computeIfAbsent(event.userId(), id -> new Activity(email));
+            activity.logins++;
+            activity.lastAtMillis = Math.max(activity.lastAtMillis, event.atMillis());
+        }
+        return drained;
+    }
+
+    private void write(Map<Long, Activity> byUser) {
+        Map<Integer, List<Map.Entry<Long, Activity>>> byShard = new TreeMap<>();
+        for (Map.Entry<Long, Activity> entry : byUser.entrySet()) {
+            String email = emailNormalizer.normalizeExisting(entry.getValue().email);
+            byShard.computeIfAbsent(email == null ? 0 : userShards.shardFor(email), shard -> new ArrayList<>())
+                    .add(entry);
+        }
+        byShard.forEach((shard, rows) -> {
+            try {
+                List<Map.Entry<Long, Activity>> missed = write(shard, rows);
+                // Mid-rebalance a row may still be on its previous shard
+                Map<Integer, List<Map.Entry<Long, Activity>>> byPreviousShard = new TreeMap<>();
+                for (Map.Entry<Long, Activity> row : missed) {
+                    String email = emailNormalizer.normalizeExisting(row.getValue().email);
+                    int previous = email == null ? -1 : userShards.previousShardFor(email);
+                    if (previous >= 0) {
+                        byPreviousShard.computeIfAbsent(previous, key -> new ArrayList<>()).add(row);
+                    }
+                }
+                byPreviousShard.forEach(this::write);
+            } catch (DataAccessException e) {
+                long events = rows.stream().mapToLong(row -> row.getValue().logins).sum();
+                lost.increment(events);
+                log.warn("Login activity flush to shard {} failed; {} login events not written: {}",
+                        shard, events, e.getMessage());
+            }
+        });
+    }
+
+    // Returns the rows that matched nothing on this shard
+    private List<Map.Entry<Long, Activity>> write(int shard, List<Map.Entry<Long, Activity>> rows) {
+        int[] counts = userShards.onShard(shard, () -> transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(UPDATE, rows.stream()
+                        .map(row -> {
+                            Timestamp at = new Timestamp(row.getValue().lastAtMillis);
+                            return new Object[]{row.getValue().logins, at, at, row.getKey()};
+                        })
+                        .toList())));
+        List<Map.Entry<Long, Activity>> missed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missed.add(rows.get(i));
+            } else {
+                // SUCCESS_NO_INFO (-2) from drivers that don't report per-statement counts
+                rowsUpdated.increment(Math.max(counts[i], 1));
+            }
+        }
+        return missed;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Keep the scheduled flush alive; the next run starts from a fresh drain
+            log.warn("Login activity flush failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+
+/**
+ * Outcome of a login attempt. Failed logins are the common case under attack, so they are plain
+ * values rather than exceptions: no stack trace to capture, nothing to unwind. Callers map the
+ * outcome with an exhaustive {@code switch}.
+ */
+public sealed interface LoginResult {
+
+    LoginResult UNKNOWN_USER = new UnknownUser();
+    LoginResult BAD_CREDENTIALS = new BadCredentials();
+
+    String message();
+
+    record Success(UserCredentials credentials) implements LoginResult {
+        @Override
+        public String message() {
+            return "Login successful";
+        }
+    }
+
+    record UnknownUser() implements LoginResult {
+        @Override
+        public String message() {
+            return "User not found";
+        }
+    }
+
+    record BadCredentials() implements LoginResult {
+        @Override
+        public String message() {
+            return "Invalid password";
+        }
+    }
+
+    // Too many recent attempts for this email or client address (see LoginThrottle)
+    record Locked(long retryAfterSeconds) implements LoginResult {
+        @Override
+        public String message() {
+            return "Too many login attempts";
+        }
+    }
+}
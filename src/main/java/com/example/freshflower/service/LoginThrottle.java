@@ -0,0 +1,138 @@
+package com.example.freshflower.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Brute-force throttle for /api/auth/login, checked before any database or BCrypt work.
+ * <p>
+ * Attempts are counted per email and per client address with a sliding-window estimate
+ * (previous window weighted by how much of it still overlaps, plus the current window).
+ * Counters are lock-free CAS cells; keys live in bounded caches and expire when idle, so
+ * an attacker cycling through random emails can't grow memory without bound.
+ */
+@Component
+public class LoginThrottle {
+
+    // Count in the low bits, window index in the high bits of one long per window slot. nanoTime (and
+    // so the index) may be negative, so the index is read back with a sign-extending shift.
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxPerEmail;
+    private final int maxPerAddress;
+    private final LongSupplier nanoTime;
+    private final EmailNormalizer emailNormalizer;
+    private final Cache<String, SlidingWindow> emailWindows;
+    private final Cache<String, SlidingWindow> addressWindows;
+    private final Counter throttledByEmail;
+    private final Counter throttledByAddress;
+
+    @Autowired
+    public LoginThrottle(@Value("${freshflower.throttle.enabled:true}") boolean enabled,
+                         @Value("${freshflower.throttle.window:1m}") Duration window,
+                         @Value("${freshflower.throttle.max-attempts-per-email:10}") int maxPerEmail,
+                         @Value("${freshflower.throttle.max-attempts-per-address:100}") int maxPerAddress,
+                         @Value("${freshflower.throttle.max-keys:100000}") long maxKeys,
+                         EmailNormalizer emailNormalizer,
+                         MeterRegistry meterRegistry) {
+        this(enabled, window, maxPerEmail, maxPerAddress, maxKeys, emailNormalizer, meterRegistry, System::nanoTime);
+    }
+
+    LoginThrottle(boolean enabled, Duration window, int maxPerEmail, int maxPerAddress, long maxKeys,
+                  EmailNormalizer emailNormalizer, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxPerEmail = maxPerEmail;
+        this.maxPerAddress = maxPerAddress;
+        this.nanoTime = nanoTime;
+        this.emailNormalizer = emailNormalizer;
+        this.emailWindows = windows(window, maxKeys);
+        this.addressWindows = windows(window, maxKeys);
+        this.throttledByEmail = Counter.builder("freshflower.login.throttled").tag("key", "email")
+                .description("Login attempts rejected by the throttle").register(meterRegistry);
+        this.throttledByAddress = Counter.builder("freshflower.login.throttled").tag("key", "address")
+                .description("Login attempts rejected by the throttle").register(meterRegistry);
+    }
+
+    /**
+     * Records a login attempt. Returns 0 when it may proceed, otherwise the number of seconds the
+     * client should wait (suitable for Retry-After).
+     */
+    public long tryAcquire(String email, String remoteAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoTime.getAsLong();
+        if (remoteAddress != null) {
+            SlidingWindow window = addressWindows.get(remoteAddress, key -> new SlidingWindow());
+            if (!window.tryAcquire(now, windowNanos, maxPerAddress)) {
+                throttledByAddress.increment();
+                return retryAfterSeconds(now);
+            }
+        }
+        // A malformed email never reaches BCrypt, so only the address limit applies to it
+        String normalized = emailNormalizer.normalizeExisting(email);
+        if (normalized != null) {
+            SlidingWindow window = emailWindows.get(normalized, key -> new SlidingWindow());
+            if (!window.tryAcquire(now, windowNanos, maxPerEmail)) {
+                throttledByEmail.increment();
+                return retryAfterSeconds(now);
+            }
+        }
+        return 0;
+    }
+
+    private static Cache<String, SlidingWindow> windows(Duration window, long maxKeys) {
+        // A key idle for two windows has nothing left to count. Maintenance runs on the caller:
+        // it is amortised and cheaper than waking a common-pool thread on every drained buffer.
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    // Until the current window ends, when the estimate has dropped by at least the previous window's share
+    private long retryAfterSeconds(long now) {
+        long remaining = windowNanos - Math.floorMod(now, windowNanos);
+        return Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static final class SlidingWindow {
+        // Two slots indexed by window parity, each packing (windowIndex, count)
+        private final AtomicLongArray slots = new AtomicLongArray(2);
+
+        boolean tryAcquire(long now, long windowNanos, int limit) {
+            long index = Math.floorDiv(now, windowNanos);
+            double previousWeight = 1.0 - (double) Math.floorMod(now, windowNanos) / windowNanos;
+            int slot = (int) (index & 1);
+
+            long previous = slots.get(slot ^ 1);
+            long previousCount = (previous >> COUNT_BITS) == index - 1 ? previous & COUNT_MASK : 0;
+
+            while (true) {
+                long packed = slots.get(slot);
+                long count = (packed >> COUNT_BITS) == index ? packed & COUNT_MASK : 0;
+                if (previousCount * previousWeight + count >= limit) {
+                    return false;
+                }
+                long next = (index << COUNT_BITS) | Math.min(count + 1, COUNT_MASK);
+                if (slots.compareAndSet(slot, packed, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.freshflower.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue (Vyukov's array queue). Each slot carries
+ * a sequence number saying whose turn it is, so producers and consumers only compete with a CAS
+ * on the tail or head counter, never with a lock. {@link #offer} fails instead of waiting when
+ * the buffer is full.
+ */
+final class MpmcRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two, got " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.items = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long turn = sequences.get(index) - position;
+            if (turn == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    // Publishes the item: the slot is now the consumer's
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (turn < 0) {
+                return false; // the consumer of this slot one lap ago hasn't taken it yet: full
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long turn = sequences.get(index) - (position + 1);
+            if (turn == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E item = items.get(index);
+                    items.lazySet(index, null);
+                    // Hands the slot back to producers for the next lap
+                    sequences.lazySet(index, position + mask + 1);
+                    return item;
+                }
+                position = head.get();
+            } else if (turn < 0) {
+                return null; // nothing published here yet: empty
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    // Approximate under concurrent use
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
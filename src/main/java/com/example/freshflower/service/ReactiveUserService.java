@@ -0,0 +1,214 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import com.example.freshflower.repository.ReactiveUserRepository;
+import com.example.freshflower.service.AuthMetrics.Operation;
+import com.example.freshflower.service.AuthMetrics.Outcome;
+import com.example.freshflower.service.AuthMetrics.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Register and login for the reactive profile, with the same rules, caching and metrics as
+ * {@link UserService}. Database calls are non-blocking; BCrypt still burns a CPU for tens of
+ * milliseconds, so it runs on the bounded {@link PasswordHashingExecutor} rather than an event
+ * loop, and a full queue fails fast with {@link HashingCapacityExceededException}.
+ * Unlike {@link UserService} it does not record login activity ({@link LoginActivityRecorder} is
+ * servlet-only), so {@code last_login_at} and {@code login_count} only move for servlet logins.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private UserValidator userValidator;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Value("${freshflower.user-changes.enabled:true}")
+    private boolean userChangesEnabled;
+
+    // The email backfill runs on servlet nodes only. Once no row is left without email_normalized
+    // none can appear again (every insert sets it), so the raw-email fallback is off for good.
+    private volatile boolean backfillComplete;
+
+    public Mono<User> registerUser(User user) {
+        try {
+            userValidator.validateUser(user);
+        } catch (IllegalArgumentException e) {
+            authMetrics.outcome(Operation.REGISTER, Outcome.VALIDATION_FAILURE);
+            return Mono.error(e);
+        }
+        // A cached hit means the email is taken; skip the BCrypt work and the doomed insert
+        if (userLookupCache.cachedPresence(user.getEmailNormalized()).orElse(false)) {
+            authMetrics.outcome(Operation.REGISTER, Outcome.DUPLICATE_EMAIL);
+            return Mono.error(new EmailAlreadyExistsException());
+        }
+        return hash(() -> encode(user.getPassword()))
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    return insert(user);
+                });
+    }
+
+    public Mono<LoginResult> login(String email, String password) {
+        // An email even the original rule rejects can't belong to anyone; answer without a cache or
+        // database lookup. Accounts registered under that rule still log in.
+        String normalized = emailNormalizer.normalizeExisting(email);
+        if (normalized == null) {
+            authMetrics.outcome(Operation.LOGIN, Outcome.VALIDATION_FAILURE);
+            return Mono.just(LoginResult.UNKNOWN_USER);
+        }
+        long start = authMetrics.start();
+        return lookup(normalized)
+                .doOnTerminate(() -> authMetrics.record(Phase.LOOKUP, start))
+                .flatMap(user -> hash(() -> verify(password, user.passwordHash()))
+                        .map(matches -> checked(user, password, matches)))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    authMetrics.outcome(Operation.LOGIN, Outcome.UNKNOWN_USER);
+                    return LoginResult.UNKNOWN_USER;
+                }));
+    }
+
+    private LoginResult checked(UserCredentials user, String password, boolean matches) {
+        if (!matches) {
+            authMetrics.outcome(Operation.LOGIN, Outcome.BAD_PASSWORD);
+            return LoginResult.BAD_CREDENTIALS;
+        }
+        authMetrics.outcome(Operation.LOGIN, Outcome.SUCCESS);
+        rehashIfOutdated(user, password);
+        return new LoginResult.Success(user);
+    }
+
+    // Relies on the unique constraint, like UserService.insert; only a violation costs a second query
+    private Mono<User> insert(User user) {
+        String email = user.getEmailNormalized();
+        long start = authMetrics.start();
+        Mono<User> write = userRepository.insert(user)
+                .flatMap(saved -> logChange(email).thenReturn(saved));
+        return transactionalOperator.transactional(write)
+                .doOnTerminate(() -> authMetrics.record(Phase.PERSIST, start))
+                .onErrorResume(DataIntegrityViolationException.class, e -> existsInDatabase(email)
+                        .flatMap(exists -> {
+                            if (!exists) {
+                                return Mono.error(e);
+                            }
+                            authMetrics.outcome(Operation.REGISTER, Outcome.DUPLICATE_EMAIL);
+                            return Mono.error(new EmailAlreadyExistsException());
+                        }))
+                .doFinally(signal -> userLookupCache.invalidate(email))
+                .doOnSuccess(saved -> authMetrics.outcome(Operation.REGISTER, Outcome.SUCCESS));
+    }
+
+    private Mono<UserCredentials> lookup(String email) {
+        Optional<UserCredentials> cached = userLookupCache.getIfPresent(email);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached);
+        }
+        return findCredentialsInDatabase(email)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(found -> userLookupCache.put(email, found))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    // Rows the backfill hasn't reached yet are only reachable through the raw email column,
+    // like UserService.findCredentialsInDatabase
+    private Mono<UserCredentials> findCredentialsInDatabase(String email) {
+        return userRepository.findCredentialsByEmailNormalized(email)
+                .switchIfEmpty(Mono.defer(() -> backfillPending()
+                        .flatMap(pending -> pending ? userRepository.findCredentialsByEmail(email) : Mono.empty())));
+    }
+
+    private Mono<Boolean> existsInDatabase(String email) {
+        return userRepository.existsByEmailNormalized(email)
+                .flatMap(exists -> exists ? Mono.just(true) : backfillPending()
+                        .flatMap(pending -> pending ? userRepository.existsByEmail(email) : Mono.just(false)));
+    }
+
+    private Mono<Boolean> backfillPending() {
+        if (backfillComplete) {
+            return Mono.just(false);
+        }
+        return userRepository.existsByEmailNormalizedIsNull()
+                .doOnNext(pending -> backfillComplete = !pending);
+    }
+
+    // The plaintext is only available at login, so that's when weaker stored hashes get upgraded
+    private void rehashIfOutdated(UserCredentials user, String password) {
+        String oldHash = user.passwordHash();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
+        }
+        String email = emailNormalizer.normalizeExisting(user.email());
+        hash(() -> encode(password))
+                .flatMap(newHash -> transactionalOperator.transactional(
+                        userRepository.updatePasswordHash(user.id(), oldHash, newHash)
+                                .flatMap(updated -> updated > 0 ? logChange(email).thenReturn(updated) : Mono.just(updated))))
+                .subscribe(updated -> {
+                    if (updated > 0) {
+                        userLookupCache.invalidate(email);
+                    }
+                }, ex -> log.debug("Password rehash skipped for user {}: {}", user.id(), ex.getMessage()));
+    }
+
+    // Lets servlet nodes sharing the database drop their cached lookup for this email
+    private Mono<Void> logChange(String emailNormalized) {
+        return userChangesEnabled ? userRepository.recordChange(emailNormalized) : Mono.empty();
+    }
+
+    private <T> Mono<T> hash(Supplier<T> task) {
+        return Mono.fromFuture(() -> passwordHashingExecutor.submit(task));
+    }
+
+    private String encode(String password) {
+        long start = authMetrics.start();
+        try {
+            return passwordEncoder.encode(password);
+        } finally {
+            authMetrics.record(Phase.HASH_ENCODE, start);
+        }
+    }
+
+    private boolean verify(String password, String hash) {
+        long start = authMetrics.start();
+        try {
+            return passwordEncoder.matches(password, hash);
+        } finally {
+            authMetrics.record(Phase.HASH_VERIFY, start);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.freshflower.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Moves users to the shard {@link UserShards} now places them on, after shards were added
+ * (or rows were loaded into the wrong one). Each shard is scanned in keyset pages of
+ * {@code freshflower.sharding.rebalance.batch-size} rows; misplaced rows are copied to their
+ * new shard with the same id, then deleted from the old one.
+ * <p>
+ * Resharding online:
+ * <ol>
+ *   <li>add the new shard URLs and set {@code freshflower.sharding.previous-shard-count} to the old
+ *       count on every instance, so lookups fall back to a row's previous shard;</li>
+ *   <li>start one instance with {@code freshflower.sharding.rebalance.on-startup=true} (or call
+ *       {@link #rebalance()}); it is safe to re-run after a crash, since rows already copied are
+ *       skipped;</li>
+ *   <li>once it reports nothing left to move, drop {@code previous-shard-count}.</li>
+ * </ol>
+ * A row updated between its copy and its delete loses that update. The only in-place updates
+ * are the rehash on login, which simply happens again on a later login, and
+ * {@link LoginActivityRecorder}'s counters, which may miss the logins flushed in that window.
+ */
+@Component
+@Profile("!reactive")
+public class ShardRebalancer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String SELECT_PAGE = "select id, created_at, email, email_normalized, full_name, password,"
+            + " last_login_at, login_count from users where id > ? order by id limit ?";
+    private static final String INSERT = "insert into users (id, created_at, email, email_normalized, full_name, password,"
+            + " last_login_at, login_count) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public record Report(long scanned, long moved, long conflicts, long unplaceable) {}
+
+    private record Row(long id, Timestamp createdAt, String email, String emailNormalized, String fullName,
+                       String password, Timestamp lastLoginAt, long loginCount) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Value("${freshflower.sharding.rebalance.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${freshflower.sharding.rebalance.on-startup:false}")
+    private boolean onStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (onStartup) {
+            rebalance();
+        }
+    }
+
+    public Report rebalance() {
+        long started = System.nanoTime();
+        long scanned = 0;
+        long moved = 0;
+        long conflicts = 0;
+        long unplaceable = 0;
+        for (int source = 0; source < userShards.count(); source++) {
+            long afterId = 0;
+            List<Row> page;
+            do {
+                long after = afterId;
+                page = userShards.onShard(source, () -> jdbcTemplate.query(SELECT_PAGE, (rs, n) -> new Row(
+                        rs.getLong("id"), rs.getTimestamp("created_at"), rs.getString("email"),
+                        rs.getString("email_normalized"), rs.getString("full_name"), rs.getString("password"),
+                        rs.getTimestamp("last_login_at"), rs.getLong("login_count")),
+                        after, batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                scanned += page.size();
+
+                Map<Integer, List<Row>> byTarget = new TreeMap<>();
+                for (Row row : page) {
+                    String email = placementKey(row);
+                    if (email == null) {
+                        log.warn("User {}: stored email is not a valid address; left on shard {}", row.id(), source);
+                        unplaceable++;
+                        continue;
+                    }
+                    int target = userShards.shardFor(email);
+                    if (target != source) {
+                        byTarget.computeIfAbsent(target, shard -> new ArrayList<>()).add(row);
+                    }
+                }
+                for (Map.Entry<Integer, List<Row>> move : byTarget.entrySet()) {
+                    List<Long> copied = copy(move.getKey(), move.getValue());
+                    conflicts += move.getValue().size() - copied.size();
+                    if (!copied.isEmpty()) {
+                        userShards.onShard(source, () -> new NamedParameterJdbcTemplate(jdbcTemplate)
+                                .update("delete from users where id in (:ids)", Map.of("ids", copied)));
+                        moved += copied.size();
+                    }
+                }
+                afterId = page.get(page.size() - 1).id();
+            } while (page.size() == batchSize);
+        }
+
+        Report report = new Report(scanned, moved, conflicts, unplaceable);
+        log.info("Shard rebalance finished: {} rows scanned, {} moved, {} conflicts, {} unplaceable in {} ms",
+                scanned, moved, conflicts, unplaceable, (System.nanoTime() - started) / 1_000_000);
+        return report;
+    }
+
+    private String placementKey(Row row) {
+        return row.emailNormalized() != null ? row.emailNormalized() : emailNormalizer.normalizeExisting(row.email());
+    }
+
+    // Ids of the rows now on the target, including ones an interrupted earlier run already copied
+    private List<Long> copy(int target, List<Row> rows) {
+        return userShards.onShard(target, () -> {
+            try {
+                return transactionTemplate.execute(status -> insertMissing(rows));
+            } catch (DataIntegrityViolationException e) {
+                // Email already taken on the target by a different user; isolate it row by row
+                List<Long> copied = new ArrayList<>();
+                for (Row row : rows) {
+                    try {
+                        copied.addAll(transactionTemplate.execute(status -> insertMissing(List.of(row))));
+                    } catch (DataIntegrityViolationException conflict) {
+                        log.warn("User {}: email {} already belongs to another user on shard {}; not moved",
+                                row.id(), placementKey(row), target);
+                    }
+                }
+                return copied;
+            }
+        });
+    }
+
+    private List<Long> insertMissing(List<Row> rows) {
+        List<Long> ids = rows.stream().map(Row::id).toList();
+        Set<Long> present = new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList("select id from users where id in (:ids)", Map.of("ids", ids), Long.class));
+        List<Object[]> inserts = new ArrayList<>();
+        for (Row row : rows) {
+            if (!present.contains(row.id())) {
+                inserts.add(new Object[]{row.id(), row.createdAt(), row.email(), placementKey(row), row.fullName(),
+                        row.password(), row.lastLoginAt(), row.loginCount()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, inserts);
+        return ids;
+    }
+}
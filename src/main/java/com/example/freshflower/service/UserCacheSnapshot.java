@@ -0,0 +1,428 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+import com.example.freshflower.repository.UserChangeRepository;
+import com.example.freshflower.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Lets a restarted node start with a warm {@link UserLookupCache}. Every
+ * {@code freshflower.user-cache.snapshot.interval}, and on shutdown, the hottest
+ * {@code max-entries} found users (normalized email, id and BCrypt hash; never a password) are
+ * written through a memory map to a temporary file that then replaces {@code path}. On boot a
+ * snapshot younger than {@code max-age} is loaded back before the node reports ready.
+ * <p>
+ * Before any entry is served, the {@link UserChangeLog} rows written since the snapshot (less
+ * {@link UserChangePoller#GAP_TIMEOUT}, for transactions still open when it was taken) are replayed
+ * and their emails dropped, so a password changed while the node was down is never served from the
+ * snapshot. A snapshot the change log no longer covers (log disabled, or older than its
+ * {@code retention}) is not restored. Each restored entry is also re-checked against the database
+ * after its first hit, in batched IN queries every {@code revalidate-interval}; entries that no
+ * longer match are dropped.
+ * <p>
+ * File layout (big-endian): magic, version, created-at millis, entry count, then per entry the id,
+ * the cache key and email (u16 length + UTF-8) and the hash (u8 length + ASCII), and a CRC32 of
+ * everything before it. A file that fails any check is ignored.
+ */
+@Component
+@Profile("!reactive")
+public class UserCacheSnapshot implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheSnapshot.class);
+
+    static final int MAGIC = 0x46465543; // "FFUC"
+    static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4;
+    private static final int REVALIDATE_BATCH = 500;
+
+    private final boolean enabled;
+    private final Path path;
+    private final int maxEntries;
+    private final Duration maxAge;
+    private final boolean changeLogEnabled;
+    private final Duration changeLogRetention;
+    private final UserLookupCache userLookupCache;
+    private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final UserShards userShards;
+    private final EmailNormalizer emailNormalizer;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter restored;
+    private final Counter replayed;
+    private final Counter valid;
+    private final Counter stale;
+
+    public UserCacheSnapshot(@Value("${freshflower.user-cache.snapshot.enabled:false}") boolean enabled,
+                             @Value("${freshflower.user-cache.snapshot.path:data/user-cache.snapshot}") Path path,
+                             @Value("${freshflower.user-cache.snapshot.interval:5m}") Duration interval,
+                             @Value("${freshflower.user-cache.snapshot.max-entries:50000}") int maxEntries,
+                             @Value("${freshflower.user-cache.snapshot.max-age:1h}") Duration maxAge,
+                             @Value("${freshflower.user-cache.snapshot.revalidate-interval:1s}") Duration revalidateInterval,
+                             @Value("${freshflower.user-changes.enabled:true}") boolean changeLogEnabled,
+                             @Value("${freshflower.user-changes.retention:1h}") Duration changeLogRetention,
+                             UserLookupCache userLookupCache,
+                             UserRepository userRepository,
+                             UserChangeRepository userChangeRepository,
+                             UserShards userShards,
+                             EmailNormalizer emailNormalizer,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled && userLookupCache.isEnabled();
+        this.path = path;
+        this.maxEntries = maxEntries;
+        this.maxAge = maxAge;
+        this.changeLogEnabled = changeLogEnabled;
+        this.changeLogRetention = changeLogRetention;
+        this.userLookupCache = userLookupCache;
+        this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.userShards = userShards;
+        this.emailNormalizer = emailNormalizer;
+
+        this.restored = Counter.builder("freshflower.user.cache.snapshot.restored")
+                .description("Lookup cache entries restored from the snapshot at boot")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("freshflower.user.cache.snapshot.replayed")
+                .description("Snapshot entries dropped at boot because the change log shows a later write")
+                .register(meterRegistry);
+        this.valid = Counter.builder("freshflower.user.cache.snapshot.revalidations")
+                .tag("result", "valid").description("Restored entries the database confirmed")
+                .register(meterRegistry);
+        this.stale = Counter.builder("freshflower.user.cache.snapshot.revalidations")
+                .tag("result", "stale").description("Restored entries dropped because the database disagreed")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.enabled) {
+            long every = interval.toNanos();
+            scheduler.scheduleWithFixedDelay(() -> quietly("write", this::write), every, every, TimeUnit.NANOSECONDS);
+            long check = revalidateInterval.toNanos();
+            scheduler.scheduleWithFixedDelay(() -> quietly("revalidation", this::revalidate), check, check,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        if (enabled) {
+            quietly("write", this::write);
+        }
+    }
+
+    /**
+     * Writes the current hot set; returns the number of entries written. An empty cache (a node
+     * that has served nothing yet) leaves the previous snapshot in place.
+     */
+    public synchronized int write() throws IOException {
+        long started = System.nanoTime();
+        Map<String, UserCredentials> hottest = userLookupCache.hottest(maxEntries);
+        if (hottest.isEmpty()) {
+            return 0;
+        }
+
+        List<byte[][]> entries = new ArrayList<>(hottest.size());
+        long size = HEADER_BYTES + 4;
+        for (Map.Entry<String, UserCredentials> entry : hottest.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] email = entry.getValue().email().getBytes(StandardCharsets.UTF_8);
+            byte[] hash = entry.getValue().passwordHash().getBytes(StandardCharsets.US_ASCII);
+            if (key.length > 0xFFFF || email.length > 0xFFFF || hash.length > 0xFF) {
+                continue;
+            }
+            entries.add(new byte[][]{longBytes(entry.getValue().id()), key, email, hash});
+            size += 8 + 2 + key.length + 2 + email.length + 1 + hash.length;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = createPrivateTempFile(directory);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putShort(VERSION).putLong(System.currentTimeMillis()).putInt(entries.size());
+                for (byte[][] entry : entries) {
+                    buffer.put(entry[0]);
+                    buffer.putShort((short) entry[1].length).put(entry[1]);
+                    buffer.putShort((short) entry[2].length).put(entry[2]);
+                    buffer.put((byte) entry[3].length).put(entry[3]);
+                }
+                buffer.putInt(crc(buffer, buffer.position()));
+                buffer.force();
+            }
+            move(temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("Wrote {} user cache entries ({} bytes) to {} in {} ms",
+                entries.size(), size, path, (System.nanoTime() - started) / 1_000_000);
+        return entries.size();
+    }
+
+    /**
+     * Loads the snapshot into the cache, less the users changed since it was written; returns the
+     * number of entries restored.
+     */
+    public int restore() {
+        long started = System.nanoTime();
+        Contents contents;
+        try {
+            contents = read();
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring user cache snapshot {}: {}", path, e.getMessage());
+            return 0;
+        }
+        Instant since = contents.createdAt().minus(UserChangePoller.GAP_TIMEOUT);
+        if (!changeLogEnabled || since.isBefore(Instant.now().minus(changeLogRetention))) {
+            log.info("Ignoring user cache snapshot {}: the user change log does not cover it", path);
+            return 0;
+        }
+        Map<String, UserCredentials> entries = new HashMap<>(contents.entries());
+        try {
+            LocalDateTime replayedTo = LocalDateTime.now().minus(UserChangePoller.GAP_TIMEOUT);
+            entries.keySet().removeAll(changedSince(LocalDateTime.ofInstant(since, ZoneId.systemDefault())));
+            entries.forEach(userLookupCache::restore);
+            // The poller's cursors were set before the first query, but it may have applied a change
+            // committed during it before these entries went in
+            changedSince(replayedTo).forEach(userLookupCache::invalidate);
+        } catch (DataAccessException e) {
+            entries.keySet().forEach(userLookupCache::invalidate);
+            log.warn("Ignoring user cache snapshot {}: could not replay the user change log: {}", path, e.getMessage());
+            return 0;
+        }
+        restored.increment(entries.size());
+        replayed.increment(contents.entries().size() - entries.size());
+        log.info("Restored {} user cache entries from {} ({} changed since) in {} ms", entries.size(), path,
+                contents.entries().size() - entries.size(), (System.nanoTime() - started) / 1_000_000);
+        return entries.size();
+    }
+
+    /**
+     * Re-checks the restored entries used since the last run; returns how many were checked.
+     */
+    public synchronized int revalidate() {
+        int checked = 0;
+        List<String> batch;
+        do {
+            batch = new ArrayList<>();
+            String key;
+            while (batch.size() < REVALIDATE_BATCH && (key = userLookupCache.pollUnverifiedHit()) != null) {
+                batch.add(key);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<String, UserCredentials> current;
+            try {
+                current = current(batch);
+            } catch (DataAccessException e) {
+                // Can't confirm them; drop them so the next lookup goes to the database
+                batch.forEach(userLookupCache::invalidate);
+                stale.increment(batch.size());
+                log.warn("Could not revalidate {} restored user cache entries: {}", batch.size(), e.getMessage());
+                checked += batch.size();
+                continue;
+            }
+            for (String email : batch) {
+                if (userLookupCache.revalidate(email, Optional.ofNullable(current.get(email)))) {
+                    valid.increment();
+                } else {
+                    stale.increment();
+                }
+            }
+            checked += batch.size();
+        } while (batch.size() == REVALIDATE_BATCH);
+        return checked;
+    }
+
+    Contents read() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("unexpected size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+                throw new IOException("not a version " + VERSION + " snapshot");
+            }
+            int end = (int) size - 4;
+            if (crc(buffer, end) != buffer.getInt(end)) {
+                throw new IOException("checksum mismatch");
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong(6));
+            Duration age = Duration.between(createdAt, Instant.now());
+            if (age.compareTo(maxAge) > 0) {
+                throw new IOException("older than " + maxAge);
+            }
+
+            buffer.position(HEADER_BYTES);
+            int count = buffer.getInt(HEADER_BYTES - 4);
+            Map<String, UserCredentials> entries = new HashMap<>(Math.min(count, maxEntries) * 2);
+            try {
+                for (int i = 0; i < count && buffer.position() < end; i++) {
+                    long id = buffer.getLong();
+                    String key = string(buffer, Short.toUnsignedInt(buffer.getShort()), StandardCharsets.UTF_8);
+                    String email = string(buffer, Short.toUnsignedInt(buffer.getShort()), StandardCharsets.UTF_8);
+                    String hash = string(buffer, Byte.toUnsignedInt(buffer.get()), StandardCharsets.US_ASCII);
+                    entries.put(key, new UserCredentials(id, email, hash));
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("truncated entry");
+            }
+            if (entries.size() != count || buffer.position() != end) {
+                throw new IOException("entry count does not match the header");
+            }
+            return new Contents(createdAt, entries);
+        }
+    }
+
+    // Cache keys of the users the change log has recorded a write for since the given time
+    private Set<String> changedSince(LocalDateTime since) {
+        Set<String> changed = new HashSet<>();
+        for (int shard = 0; shard < userShards.count(); shard++) {
+            for (String email : userShards.onShard(shard, () -> userChangeRepository.findEmailsChangedSince(since))) {
+                changed.add(UserLookupCache.key(email));
+            }
+        }
+        return changed;
+    }
+
+    // The database's current credentials for these cache keys, looked up on each key's shard
+    private Map<String, UserCredentials> current(List<String> keys) {
+        Map<Integer, List<String>> byShard = new TreeMap<>();
+        for (String key : keys) {
+            byShard.computeIfAbsent(userShards.shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        Map<String, UserCredentials> current = new HashMap<>();
+        byShard.forEach((shard, emails) -> collect(shard, emails, current));
+
+        // Mid-rebalance a user may still be on its previous shard
+        Map<Integer, List<String>> byPreviousShard = new TreeMap<>();
+        for (String key : keys) {
+            int previous = current.containsKey(key) ? -1 : userShards.previousShardFor(key);
+            if (previous >= 0) {
+                byPreviousShard.computeIfAbsent(previous, shard -> new ArrayList<>()).add(key);
+            }
+        }
+        byPreviousShard.forEach((shard, emails) -> collect(shard, emails, current));
+        return current;
+    }
+
+    private void collect(int shard, List<String> emails, Map<String, UserCredentials> into) {
+        for (UserCredentials user : userShards.onShard(shard,
+                () -> userRepository.findCredentialsByEmailNormalizedIn(emails))) {
+            String normalized = emailNormalizer.normalizeExisting(user.email());
+            if (normalized != null) {
+                into.put(UserLookupCache.key(normalized), user);
+            }
+        }
+    }
+
+    private Path createPrivateTempFile(Path directory) throws IOException {
+        String prefix = path.getFileName() + ".";
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            // Holds password hashes: readable by the service account only
+            return Files.createTempFile(directory, prefix, ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        return Files.createTempFile(directory, prefix, ".tmp");
+    }
+
+    private void move(Path temp) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return (int) crc.getValue();
+    }
+
+    private static String string(ByteBuffer buffer, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(8).putLong(value).array();
+    }
+
+    private void quietly(String task, IoTask work) {
+        try {
+            work.run();
+        } catch (IOException | RuntimeException e) {
+            // Keep the schedule alive; the next run tries again
+            log.warn("User cache snapshot {} failed: {}", task, e.toString());
+        }
+    }
+
+    record Contents(Instant createdAt, Map<String, UserCredentials> entries) {
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.freshflower.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Appends to the {@code user_changes} table that {@link UserChangePoller} tails on every instance.
+ * Call it inside the transaction that writes the users rows, on the same shard, so a change is
+ * logged if and only if it commits.
+ */
+@Component
+@Profile("!reactive")
+public class UserChangeLog {
+
+    private static final String INSERT = "insert into user_changes (email_normalized, changed_at) values (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${freshflower.user-changes.enabled:true}")
+    private boolean enabled;
+
+    public void record(String emailNormalized) {
+        record(Collections.singletonList(emailNormalized));
+    }
+
+    public void record(Collection<String> emailsNormalized) {
+        if (!enabled) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = emailsNormalized.stream()
+                .filter(Objects::nonNull)
+                .map(email -> new Object[]{email, now})
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserChange;
+import com.example.freshflower.repository.UserChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this instance's {@link UserLookupCache} coherent with writes made by other instances.
+ * Every {@code freshflower.user-changes.poll-interval} it reads the {@link UserChangeLog} rows
+ * after its cursor on each shard, in keyset pages of {@code batch-size}, and invalidates the
+ * cached lookup for each email.
+ * Cursors start at the newest row when the instance boots; older changes are already in the
+ * database it loads from, and {@link UserCacheSnapshot} replays the ones its snapshot predates.
+ * <p>
+ * Ids are allocated in insert order but become visible in commit order, so a page can skip an
+ * id whose transaction is still open. Skipped ids are re-queried on later polls until they show
+ * up or {@link #GAP_TIMEOUT} passes (rolled back). Rows older than {@code retention} are deleted.
+ */
+@Component
+@Profile("!reactive")
+// Before UserCacheSnapshot restores: its replay of the log stops where these cursors start
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UserChangePoller implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangePoller.class);
+
+    // Longer than any users transaction should stay open
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(30);
+    // A larger jump is an auto-increment reset or step rather than transactions in flight
+    private static final int MAX_GAP = 10_000;
+
+    private static final class Cursor {
+        long position;
+        final Map<Long, Long> gapDeadlines = new HashMap<>();
+    }
+
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration retention;
+    private final UserChangeRepository userChangeRepository;
+    private final UserShards userShards;
+    private final UserLookupCache userLookupCache;
+
+    private final Cursor[] cursors;
+    private final ScheduledExecutorService scheduler;
+    private volatile long lastPollNanos = System.nanoTime();
+
+    private final Counter applied;
+    private final Timer lag;
+
+    public UserChangePoller(@Value("${freshflower.user-changes.enabled:true}") boolean enabled,
+                            @Value("${freshflower.user-changes.poll-interval:500ms}") Duration pollInterval,
+                            @Value("${freshflower.user-changes.batch-size:1000}") int batchSize,
+                            @Value("${freshflower.user-changes.retention:1h}") Duration retention,
+                            UserChangeRepository userChangeRepository,
+                            UserShards userShards,
+                            UserLookupCache userLookupCache,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.userChangeRepository = userChangeRepository;
+        this.userShards = userShards;
+        this.userLookupCache = userLookupCache;
+
+        this.cursors = new Cursor[userShards.count()];
+        for (int shard = 0; shard < cursors.length; shard++) {
+            cursors[shard] = new Cursor();
+        }
+
+        this.applied = Counter.builder("freshflower.user.changes.applied")
+                .description("User changes from the change log applied to the local caches")
+                .register(meterRegistry);
+        this.lag = Timer.builder("freshflower.user.changes.lag")
+                .description("Time from a user change being logged to this instance applying it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("freshflower.user.changes.poll.age", this, poller -> poller.sinceLastPoll().toMillis() / 1000.0)
+                .description("Seconds since the change log was last polled successfully")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        for (int shard = 0; shard < cursors.length; shard++) {
+            Long newest = userShards.onShard(shard, userChangeRepository::findMaxId);
+            cursors[shard].position = newest == null ? 0 : newest;
+        }
+        lastPollNanos = System.nanoTime();
+        long every = pollInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, every, every, TimeUnit.NANOSECONDS);
+        long prune = Math.max(retention.toNanos() / 10, TimeUnit.MINUTES.toNanos(1));
+        scheduler.scheduleWithFixedDelay(this::pruneQuietly, prune, prune, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Applies every change logged since the last poll; returns how many were applied.
+     */
+    public synchronized int poll() {
+        int total = 0;
+        for (int shard = 0; shard < cursors.length; shard++) {
+            total += poll(shard, cursors[shard]);
+        }
+        lastPollNanos = System.nanoTime();
+        return total;
+    }
+
+    /**
+     * Deletes change log rows older than the retention; returns how many were deleted.
+     */
+    public int prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted = 0;
+        for (int shard = 0; shard < cursors.length; shard++) {
+            deleted += userShards.onShard(shard, () -> userChangeRepository.deleteOlderThan(cutoff));
+        }
+        return deleted;
+    }
+
+    Duration sinceLastPoll() {
+        return Duration.ofNanos(System.nanoTime() - lastPollNanos);
+    }
+
+    private int poll(int shard, Cursor cursor) {
+        int count = 0;
+        List<UserChange> page;
+        do {
+            long after = cursor.position;
+            page = userShards.onShard(shard,
+                    () -> userChangeRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize)));
+            for (UserChange change : page) {
+                trackGap(cursor, change.getId());
+                apply(change);
+                cursor.position = change.getId();
+            }
+            count += page.size();
+        } while (page.size() == batchSize);
+        return count + retryGaps(shard, cursor);
+    }
+
+    private void trackGap(Cursor cursor, long id) {
+        long missing = id - cursor.position - 1;
+        if (missing <= 0 || missing > MAX_GAP) {
+            return;
+        }
+        long deadline = System.nanoTime() + GAP_TIMEOUT.toNanos();
+        for (long gap = cursor.position + 1; gap < id; gap++) {
+            cursor.gapDeadlines.put(gap, deadline);
+        }
+    }
+
+    private int retryGaps(int shard, Cursor cursor) {
+        if (cursor.gapDeadlines.isEmpty()) {
+            return 0;
+        }
+        List<Long> gaps = List.copyOf(cursor.gapDeadlines.keySet());
+        List<UserChange> late = userShards.onShard(shard, () -> userChangeRepository.findByIdIn(gaps));
+        for (UserChange change : late) {
+            cursor.gapDeadlines.remove(change.getId());
+            apply(change);
+        }
+        long now = System.nanoTime();
+        cursor.gapDeadlines.values().removeIf(deadline -> now - deadline > 0);
+        return late.size();
+    }
+
+    private void apply(UserChange change) {
+        userLookupCache.invalidate(change.getEmailNormalized());
+        applied.increment();
+        Duration behind = Duration.between(change.getChangedAt(), LocalDateTime.now());
+        lag.record(behind.isNegative() ? Duration.ZERO : behind);
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (DataAccessException e) {
+            // Cursors only move past applied rows; the next poll picks up from there
+            log.warn("User change log poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            log.debug("Pruned {} user change log rows", prune());
+        } catch (DataAccessException e) {
+            log.warn("User change log prune failed: {}", e.getMessage());
+        }
+    }
+}
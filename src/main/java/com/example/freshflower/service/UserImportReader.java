@@ -0,0 +1,153 @@
+package com.example.freshflower.service;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams rows out of an NDJSON or CSV upload one line at a time, so an import never holds the
+ * whole file in memory. Rows that can't be parsed come back with {@link Row#error()} set.
+ * <p>
+ * CSV needs a header row naming the columns: {@code email}, {@code fullName} and either
+ * {@code password} or {@code passwordHash}. Quoted fields may not span lines.
+ */
+class UserImportReader implements Closeable {
+
+    record Row(long line, String email, String password, String passwordHash, String fullName, String error) {
+
+        static Row failed(long line, String message) {
+            return new Row(line, null, null, null, null, message);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record JsonRow(String email,
+                           String password,
+                           @JsonAlias("password_hash") String passwordHash,
+                           @JsonAlias("full_name") String fullName) {}
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private int passwordHashColumn = -1;
+    private int fullNameColumn = -1;
+
+    UserImportReader(InputStream body, ImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ImportFormat.CSV) {
+            readCsvHeader();
+        }
+    }
+
+    // Next non-blank row, or null at the end of the upload
+    Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        return format == ImportFormat.CSV ? parseCsv(text) : parseJson(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row parseJson(String text) {
+        try {
+            JsonRow row = objectMapper.readValue(text, JsonRow.class);
+            return new Row(line, row.email(), row.password(), row.passwordHash(), row.fullName(), null);
+        } catch (JsonProcessingException e) {
+            return Row.failed(line, "Malformed JSON");
+        }
+    }
+
+    private void readCsvHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "")) {
+                case "email" -> emailColumn = i;
+                case "password" -> passwordColumn = i;
+                case "passwordhash" -> passwordHashColumn = i;
+                case "fullname" -> fullNameColumn = i;
+                default -> { }
+            }
+        }
+        if (emailColumn < 0 || fullNameColumn < 0 || (passwordColumn < 0 && passwordHashColumn < 0)) {
+            throw new IllegalArgumentException("CSV header must name email, fullName and password or passwordHash");
+        }
+    }
+
+    private Row parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields == null) {
+            return Row.failed(line, "Malformed CSV row");
+        }
+        return new Row(line, field(fields, emailColumn), field(fields, passwordColumn),
+                field(fields, passwordHashColumn), field(fields, fullNameColumn), null);
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    // RFC 4180 fields on a single line; returns null for an unterminated quote
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
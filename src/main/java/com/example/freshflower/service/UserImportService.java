@@ -0,0 +1,266 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.config.ReadWriteRoutingDataSource;
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import for partner-shop migrations.
+ * <p>
+ * The upload is streamed in chunks of {@code freshflower.import.batch-size} rows. Each chunk is
+ * validated, checked against existing emails with one IN query, hashed in parallel across cores,
+ * and persisted through Hibernate JDBC batching (possible because {@link User} ids come from a
+ * pooled sequence). Rows that already carry a BCrypt hash are stored as-is; with BCrypt cost 10
+ * hashing is far slower than the insert, so pre-hashed uploads are the fast path.
+ */
+@Service
+@Profile("!reactive")
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private UserValidator userValidator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${freshflower.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${freshflower.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Separate from the login hashing executor so a large import can't cause 503s on login
+    private final ForkJoinPool hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public ImportReport importUsers(InputStream body, ImportFormat format) throws IOException {
+        long started = System.nanoTime();
+        Report report = new Report(maxReportedErrors);
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportReader.Row> chunk = new ArrayList<>(batchSize);
+
+        try (UserImportReader reader = new UserImportReader(body, format, objectMapper)) {
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row);
+                if (error == null && !seenEmails.add(emailNormalizer.normalize(row.email()))) {
+                    error = "Duplicate email in upload";
+                }
+                if (error != null) {
+                    report.failed(row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        log.info("Bulk import finished: {} imported, {} failed in {} ms", report.imported, report.failed,
+                (System.nanoTime() - started) / 1_000_000);
+        return report.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private String validate(UserImportReader.Row row) {
+        try {
+            userValidator.validateEmail(row.email());
+            userValidator.validateFullName(row.fullName());
+            if (row.passwordHash() != null && !row.passwordHash().isBlank()) {
+                if (!BCRYPT_HASH.matcher(row.passwordHash()).matches()) {
+                    return "Password hash must be a BCrypt hash";
+                }
+            } else {
+                userValidator.validatePassword(row.password());
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    // With sharding, each shard's rows get their own IN query and batch transaction
+    private void importChunk(List<UserImportReader.Row> chunk, Report report) {
+        Map<Integer, List<UserImportReader.Row>> byShard = new TreeMap<>();
+        for (UserImportReader.Row row : chunk) {
+            byShard.computeIfAbsent(userShards.shardFor(emailNormalizer.normalize(row.email())), shard -> new ArrayList<>())
+                    .add(row);
+        }
+        byShard.forEach((shard, rows) -> userShards.onShard(shard, () -> {
+            importShardChunk(rows, report);
+            return null;
+        }));
+    }
+
+    private void importShardChunk(List<UserImportReader.Row> chunk, Report report) {
+        List<String> emails = chunk.stream().map(row -> emailNormalizer.normalize(row.email())).toList();
+        // A lagging replica would miss recent registrations and turn each into a failed batch
+        Set<String> existing = ReadWriteRoutingDataSource.onPrimary(() -> existingEmails(emails));
+
+        List<UserImportReader.Row> rows = new ArrayList<>(chunk.size());
+        for (UserImportReader.Row row : chunk) {
+            if (existing.contains(emailNormalizer.normalize(row.email()))) {
+                report.failed(row, "Email already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<User> users = hash(rows);
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(users));
+            users.forEach(userService::onSaved);
+            report.imported += users.size();
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // Registered after our IN query, or a legacy row without email_normalized; isolate it row by row
+            importOneByOne(rows, users, report);
+        }
+    }
+
+    // Mid-rebalance, emails that are moving may still sit on their previous shard
+    private Set<String> existingEmails(List<String> emails) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingNormalizedEmails(emails));
+        Map<Integer, List<String>> byPreviousShard = new TreeMap<>();
+        for (String email : emails) {
+            int previous = userShards.previousShardFor(email);
+            if (previous >= 0) {
+                byPreviousShard.computeIfAbsent(previous, shard -> new ArrayList<>()).add(email);
+            }
+        }
+        byPreviousShard.forEach((shard, moving) ->
+                existing.addAll(userShards.onShard(shard, () -> userRepository.findExistingNormalizedEmails(moving))));
+        return existing;
+    }
+
+    private List<User> hash(List<UserImportReader.Row> rows) {
+        try {
+            return hashingPool.submit(() -> rows.parallelStream().map(this::toUser).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private User toUser(UserImportReader.Row row) {
+        boolean preHashed = row.passwordHash() != null && !row.passwordHash().isBlank();
+        String password = preHashed ? row.passwordHash() : passwordEncoder.encode(row.password());
+        User user = new User(row.email().trim(), password, row.fullName().trim());
+        user.setEmailNormalized(emailNormalizer.normalize(row.email()));
+        return user;
+    }
+
+    // A violation raised by the explicit flush surfaces untranslated, as Hibernate's ConstraintViolationException
+    private void persist(List<User> users) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        for (User user : users) {
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userChangeLog.record(users.stream().map(User::getEmailNormalized).toList());
+    }
+
+    private void importOneByOne(List<UserImportReader.Row> rows, List<User> users, Report report) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(null); // assigned by the rolled-back batch
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(user)));
+                userService.onSaved(user);
+                report.imported++;
+            } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+                report.failed(rows.get(i), "Email already exists");
+            }
+        }
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void failed(UserImportReader.Row row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(row.line(), row.email(), message));
+            }
+        }
+
+        ImportReport build() {
+            return new ImportReport(imported, failed, errors, failed > errors.size());
+        }
+    }
+}
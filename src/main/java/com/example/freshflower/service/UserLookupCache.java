@@ -0,0 +1,179 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of login credential lookups keyed by lower-cased email (W-TinyLFU eviction).
+ * It holds immutable {@link UserCredentials} rather than entities, so entries can be shared across threads.
+ * Unknown emails are cached too, with a shorter TTL, so repeated misses (credential stuffing)
+ * don't each cost a query. Entries are invalidated when a user with that email is saved.
+ * <p>
+ * Entries restored from a {@link UserCacheSnapshot} are served straight away but marked
+ * unverified; the first hit on one queues its email for {@link #pollUnverifiedHit()}, so the
+ * snapshot can re-check it against the database.
+ */
+@Component
+public class UserLookupCache {
+
+    private final Cache<String, Optional<UserCredentials>> cache;
+    private final Set<String> unverified = ConcurrentHashMap.newKeySet();
+    private final Queue<String> unverifiedHits = new ConcurrentLinkedQueue<>();
+
+    public UserLookupCache(@Value("${freshflower.user-cache.enabled:true}") boolean enabled,
+                           @Value("${freshflower.user-cache.maximum-size:100000}") long maximumSize,
+                           @Value("${freshflower.user-cache.ttl:10m}") Duration ttl,
+                           @Value("${freshflower.user-cache.negative-ttl:1m}") Duration negativeTtl,
+                           MeterRegistry meterRegistry) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LookupExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    // Returns the cached lookup for this email, or runs the loader once and caches its result
+    public Optional<UserCredentials> lookup(String email, Supplier<Optional<UserCredentials>> loader) {
+        if (cache == null || email == null) {
+            return loader.get();
+        }
+        String key = key(email);
+        Optional<UserCredentials> user = cache.get(key, k -> loader.get());
+        touched(key);
+        return user;
+    }
+
+    // Empty when nothing is cached for this email; otherwise whether the cached lookup found a user
+    public Optional<Boolean> cachedPresence(String email) {
+        if (cache == null || email == null) {
+            return Optional.empty();
+        }
+        String key = key(email);
+        Optional<UserCredentials> cached = cache.getIfPresent(key);
+        touched(key);
+        return cached == null ? Optional.empty() : Optional.of(cached.isPresent());
+    }
+
+    // For callers that load asynchronously: null when nothing is cached, otherwise the cached lookup
+    public Optional<UserCredentials> getIfPresent(String email) {
+        if (cache == null || email == null) {
+            return null;
+        }
+        String key = key(email);
+        Optional<UserCredentials> cached = cache.getIfPresent(key);
+        touched(key);
+        return cached;
+    }
+
+    public void put(String email, Optional<UserCredentials> user) {
+        if (cache != null && email != null) {
+            cache.put(key(email), user);
+        }
+    }
+
+    public void invalidate(String email) {
+        if (cache != null && email != null) {
+            unverified.remove(key(email));
+            cache.invalidate(key(email));
+        }
+    }
+
+    // Found users, most likely to be used again first (Caffeine's frequency and recency estimate)
+    public Map<String, UserCredentials> hottest(int limit) {
+        if (cache == null) {
+            return Map.of();
+        }
+        Map<String, UserCredentials> hottest = new LinkedHashMap<>();
+        cache.policy().eviction().ifPresent(eviction -> eviction.hottest(entries -> {
+            entries.filter(entry -> entry.getValue().isPresent())
+                    .limit(limit)
+                    .forEach(entry -> hottest.put(entry.getKey(), entry.getValue().get()));
+            return null;
+        }));
+        return hottest;
+    }
+
+    // Adds a restored entry unless a fresher one is already cached; it stays unverified until checked
+    public void restore(String key, UserCredentials user) {
+        if (cache != null && cache.asMap().putIfAbsent(key, Optional.of(user)) == null) {
+            unverified.add(key);
+        }
+    }
+
+    // An unverified entry that has been used since it was restored, or null
+    public String pollUnverifiedHit() {
+        return unverifiedHits.poll();
+    }
+
+    // Drops the entry if it no longer matches what the database holds for this email
+    public boolean revalidate(String key, Optional<UserCredentials> current) {
+        if (cache == null) {
+            return true;
+        }
+        Optional<UserCredentials> cached = cache.getIfPresent(key);
+        if (cached == null || cached.equals(current)) {
+            return true;
+        }
+        cache.asMap().remove(key, cached);
+        return false;
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    private void touched(String key) {
+        if (!unverified.isEmpty() && unverified.remove(key)) {
+            unverifiedHits.add(key);
+        }
+    }
+
+    static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Found users live for ttl, unknown emails for negativeTtl; reads don't extend either
+    private record LookupExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<UserCredentials>> {
+        @Override
+        public long expireAfterCreate(String email, Optional<UserCredentials> user, long currentTime) {
+            return (user.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, Optional<UserCredentials> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(email, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, Optional<UserCredentials> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
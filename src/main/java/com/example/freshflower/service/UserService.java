@@ -1,86 +1,337 @@
 package com.example.freshflower.service;
 
+import com.example.freshflower.config.ReadWriteRoutingDataSource;
+import com.example.freshflower.config.ReadYourWritesWindow;
 import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
 import com.example.freshflower.repository.UserRepository;
+import com.example.freshflower.service.AuthMetrics.Operation;
+import com.example.freshflower.service.AuthMetrics.Outcome;
+import com.example.freshflower.service.AuthMetrics.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Profile("!reactive")
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    // Set on the thread running an AuthWarmup round
+    private static final ThreadLocal<Boolean> WARMUP = new ThreadLocal<>();
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private DatabaseWorkExecutor databaseWorkExecutor;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private EmailNormalizer emailNormalizer;
+
+    @Autowired
+    private UserValidator userValidator;
+
+    @Autowired
+    private EmailNormalizedBackfill emailNormalizedBackfill;
+
+    @Autowired
+    private ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    // Inserts directly and relies on the unique email constraint: one round-trip per new user
     public User registerUser(User user) {
-        validateUser(user);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        validateRegistration(user);
+        user.setPassword(encode(user.getPassword()));
+        return insert(user);
+    }
+
+    // Same as registerUser, but BCrypt runs on the hashing executor and the insert on the database one
+    public CompletableFuture<User> registerUserAsync(User user) {
+        try {
+            validateRegistration(user);
+        } catch (IllegalArgumentException | EmailAlreadyExistsException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return passwordHashingExecutor.submit(() -> encode(user.getPassword()))
+                .thenApplyAsync(encoded -> {
+                    user.setPassword(encoded);
+                    return insert(user);
+                }, databaseWorkExecutor);
     }
 
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email).orElse(null);
+        String normalized = emailNormalizer.normalizeExisting(email);
+        return normalized == null ? null
+                : readYourWritesWindow.read(normalized, () -> findInDatabase(normalized)).orElse(null);
     }
 
-    public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+    public boolean emailExists(String rawEmail) {
+        String email = emailNormalizer.normalize(rawEmail);
+        if (email == null) {
+            return false;
+        }
+        Optional<Boolean> cached = userLookupCache.cachedPresence(email);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return readYourWritesWindow.read(email, () -> existsInDatabase(email));
     }
 
-    public User login(String email, String password) throws Exception {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+    public LoginResult login(String email, String password) {
+        Optional<UserCredentials> userOpt = lookupForLogin(email);
 
         if (userOpt.isEmpty()) {
-            throw new Exception("User not found");
+            return LoginResult.UNKNOWN_USER;
         }
 
-        User user = userOpt.get();
+        UserCredentials user = userOpt.get();
+        return checked(user, password, verify(password, user.passwordHash()), WARMUP.get() != null);
+    }
+
+    // Same as login, but the password check runs on the hashing executor. Completes exceptionally
+    // only when the executor is saturated (HashingCapacityExceededException) or the lookup fails.
+    public CompletableFuture<LoginResult> loginAsync(String email, String password) {
+        Optional<UserCredentials> userOpt = lookupForLogin(email);
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new Exception("Invalid password");
+        if (userOpt.isEmpty()) {
+            return CompletableFuture.completedFuture(LoginResult.UNKNOWN_USER);
         }
 
-        return user;
+        UserCredentials user = userOpt.get();
+        // Read here: the check completes on a hashing thread
+        boolean warmup = WARMUP.get() != null;
+
+        return passwordHashingExecutor.submit(() -> verify(password, user.passwordHash()))
+                .thenApply(matches -> checked(user, password, matches, warmup));
     }
 
-    private void validateUser(User user) {
-        if (user == null) {
-            throw new IllegalArgumentException("User cannot be null");
+    /**
+     * Runs an AuthWarmup round on this thread. Its writes are rolled back, so nothing about them
+     * may outlive the round: saves skip the read-your-writes window, logins skip
+     * login activity and rehashing, and neither counts towards {@code freshflower.auth.outcomes}.
+     */
+    public static void warmUp(Runnable round) {
+        WARMUP.set(Boolean.TRUE);
+        try {
+            round.run();
+        } finally {
+            WARMUP.remove();
         }
-        validateEmail(user.getEmail());
-        validatePassword(user.getPassword());
-        validateFullName(user.getFullName());
     }
 
-    private void validateEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            throw new IllegalArgumentException("Email cannot be null or empty");
+    public static boolean isWarmingUp() {
+        return WARMUP.get() != null;
+    }
+
+    // Synthetic warm-up traffic stays out of the outcome counters
+    private void outcome(Operation operation, Outcome outcome) {
+        if (WARMUP.get() == null) {
+            authMetrics.outcome(operation, outcome);
         }
-        if (!isValidEmailFormat(email)) {
-            throw new IllegalArgumentException("Invalid email format");
+    }
+
+    private LoginResult checked(UserCredentials user, String password, boolean matches, boolean warmup) {
+        if (!matches) {
+            if (!warmup) {
+                authMetrics.outcome(Operation.LOGIN, Outcome.BAD_PASSWORD);
+            }
+            return LoginResult.BAD_CREDENTIALS;
+        }
+        if (!warmup) {
+            authMetrics.outcome(Operation.LOGIN, Outcome.SUCCESS);
+            loginActivityRecorder.record(user);
+            rehashIfOutdated(user, password);
+        }
+        return new LoginResult.Success(user);
+    }
+
+    // The plaintext is only available at login, so that's when weaker stored hashes get upgraded
+    private void rehashIfOutdated(UserCredentials user, String password) {
+        String oldHash = user.passwordHash();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
         }
+        passwordHashingExecutor.submit(() -> encode(password))
+                .thenAcceptAsync(newHash -> {
+                    String email = emailNormalizer.normalizeExisting(user.email());
+                    // Mid-rebalance the row may still be on its previous shard; then this updates nothing
+                    if (userShards.onShardFor(email, () -> transactionTemplate.execute(status -> {
+                        int updated = userRepository.updatePasswordHash(user.id(), oldHash, newHash);
+                        if (updated > 0) {
+                            userChangeLog.record(email);
+                        }
+                        return updated;
+                    })) > 0) {
+                        userLookupCache.invalidate(email);
+                    }
+                }, databaseWorkExecutor)
+                .exceptionally(ex -> {
+                    // Overloaded or failed: the next successful login tries again
+                    log.debug("Password rehash skipped for user {}: {}", user.id(), ex.getMessage());
+                    return null;
+                });
     }
 
-    private void validatePassword(String password) {
-        if (password == null || password.trim().isEmpty()) {
-            throw new IllegalArgumentException("Password cannot be null or empty");
+    private User insert(User user) {
+        User saved;
+        long start = authMetrics.start();
+        try {
+            // The change log row commits with the user, so other instances drop their cached miss
+            saved = userShards.onShardFor(user.getEmailNormalized(), () -> transactionTemplate.execute(status -> {
+                User persisted = userRepository.saveAndFlush(user);
+                userChangeLog.record(persisted.getEmailNormalized());
+                return persisted;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Only the failure path pays for a second query, to tell a duplicate from other violations.
+            // It must see the row that just won the race, so it can't go to a lagging replica.
+            if (ReadWriteRoutingDataSource.onPrimary(() -> existsInDatabase(user.getEmailNormalized()))) {
+                userLookupCache.invalidate(user.getEmailNormalized());
+                outcome(Operation.REGISTER, Outcome.DUPLICATE_EMAIL);
+                throw new EmailAlreadyExistsException();
+            }
+            throw e;
+        } finally {
+            authMetrics.record(Phase.PERSIST, start);
         }
-        if (password.length() < 8) {
-            throw new IllegalArgumentException("Password must be at least 8 characters long");
+        if (WARMUP.get() == null) {
+            onSaved(saved);
         }
+        outcome(Operation.REGISTER, Outcome.SUCCESS);
+        return saved;
     }
 
-    private void validateFullName(String fullName) {
-        if (fullName == null || fullName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Full name cannot be null or empty");
+    private void validateRegistration(User user) {
+        try {
+            userValidator.validateUser(user);
+        } catch (IllegalArgumentException e) {
+            outcome(Operation.REGISTER, Outcome.VALIDATION_FAILURE);
+            throw e;
+        }
+        rejectKnownDuplicate(user.getEmailNormalized());
+        rejectDuplicateOnPreviousShard(user.getEmailNormalized());
+    }
+
+    // A cached hit means the email is taken; skip the BCrypt work and the doomed insert
+    private void rejectKnownDuplicate(String email) {
+        if (userLookupCache.cachedPresence(email).orElse(false)) {
+            outcome(Operation.REGISTER, Outcome.DUPLICATE_EMAIL);
+            throw new EmailAlreadyExistsException();
+        }
+    }
+
+    // While shards are rebalanced the email may still live on its old shard, where the unique
+    // constraint of the new one can't see it
+    private void rejectDuplicateOnPreviousShard(String email) {
+        if (userShards.previousShardFor(email) >= 0 && existsInDatabase(email)) {
+            outcome(Operation.REGISTER, Outcome.DUPLICATE_EMAIL);
+            throw new EmailAlreadyExistsException();
+        }
+    }
+
+    private String encode(String password) {
+        long start = authMetrics.start();
+        try {
+            return passwordEncoder.encode(password);
+        } finally {
+            authMetrics.record(Phase.HASH_ENCODE, start);
+        }
+    }
+
+    private boolean verify(String password, String hash) {
+        long start = authMetrics.start();
+        try {
+            return passwordEncoder.matches(password, hash);
+        } finally {
+            authMetrics.record(Phase.HASH_VERIFY, start);
+        }
+    }
+
+    private Optional<UserCredentials> lookup(String email) {
+        return userLookupCache.lookup(email,
+                () -> readYourWritesWindow.read(email, () -> findCredentialsInDatabase(email)));
+    }
+
+    // Index point-lookup on email_normalized, on the email's shard; rows the backfill hasn't
+    // reached yet are only reachable through the raw email column
+    private Optional<User> findInDatabase(String email) {
+        return userShards.find(email, () -> {
+            Optional<User> user = userRepository.findByEmailNormalized(email);
+            if (user.isEmpty() && !emailNormalizedBackfill.isComplete()) {
+                return userRepository.findByEmail(email);
+            }
+            return user;
+        });
+    }
+
+    private Optional<UserCredentials> findCredentialsInDatabase(String email) {
+        return userShards.find(email, () -> {
+            Optional<UserCredentials> credentials = userRepository.findCredentialsByEmailNormalized(email);
+            if (credentials.isEmpty() && !emailNormalizedBackfill.isComplete()) {
+                return userRepository.findCredentialsByEmail(email);
+            }
+            return credentials;
+        });
+    }
+
+    private boolean existsInDatabase(String email) {
+        return userShards.exists(email, () -> userRepository.existsByEmailNormalized(email)
+                || (!emailNormalizedBackfill.isComplete() && userRepository.existsByEmail(email)));
+    }
+
+    // An email even the original rule rejects can't belong to anyone; answer without a cache or
+    // database lookup. Accounts registered under that rule still log in.
+    private Optional<UserCredentials> lookupForLogin(String email) {
+        String normalized = emailNormalizer.normalizeExisting(email);
+        if (normalized == null) {
+            outcome(Operation.LOGIN, Outcome.VALIDATION_FAILURE);
+            return Optional.empty();
+        }
+        long start = authMetrics.start();
+        Optional<UserCredentials> credentials = lookup(normalized);
+        authMetrics.record(Phase.LOOKUP, start);
+        if (credentials.isEmpty()) {
+            outcome(Operation.LOGIN, Outcome.UNKNOWN_USER);
         }
+        return credentials;
     }
 
-    private boolean isValidEmailFormat(String email) {
-        return email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+    // Keep the in-memory views of the users table in step with a successful save
+    void onSaved(User saved) {
+        readYourWritesWindow.recordWrite(saved.getEmailNormalized());
+        userLookupCache.invalidate(saved.getEmailNormalized());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.config.ShardRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a user lives on: a jump consistent hash of the normalized email over
+ * the configured shards (shard 0 is {@code spring.datasource.*}, then one per entry in
+ * {@code freshflower.sharding.urls}). Without sharding there is one shard and every call runs as is.
+ * <p>
+ * While {@code freshflower.sharding.previous-shard-count} is set, {@link ShardRebalancer} is still
+ * moving rows to their new homes, so a miss on the new home is retried on the old one.
+ */
+@Component
+public class UserShards {
+
+    private final int count;
+    private final int previousCount;
+
+    public UserShards(@Value("${freshflower.sharding.enabled:false}") boolean enabled,
+                      @Value("${freshflower.sharding.urls:}") List<String> urls,
+                      @Value("${freshflower.sharding.previous-shard-count:0}") int previousCount) {
+        this.count = enabled ? 1 + (int) urls.stream().filter(url -> !url.isBlank()).count() : 1;
+        this.previousCount = enabled && previousCount > 0 && previousCount != count ? previousCount : 0;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isRebalancing() {
+        return previousCount > 0;
+    }
+
+    public int shardFor(String email) {
+        return shardFor(email, count);
+    }
+
+    // The shard the email lived on before the current resharding, or -1 if it hasn't moved
+    public int previousShardFor(String email) {
+        if (previousCount == 0) {
+            return -1;
+        }
+        int previous = shardFor(email, previousCount);
+        return previous == shardFor(email) ? -1 : previous;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return count == 1 ? work.get() : ShardRoutingDataSource.onShard(shard, work);
+    }
+
+    public <T> T onShardFor(String email, Supplier<T> work) {
+        return onShard(shardFor(email), work);
+    }
+
+    public <T> Optional<T> find(String email, Supplier<Optional<T>> query) {
+        Optional<T> found = onShardFor(email, query);
+        int previous = previousShardFor(email);
+        return found.isPresent() || previous < 0 ? found : onShard(previous, query);
+    }
+
+    public boolean exists(String email, BooleanSupplier query) {
+        if (onShardFor(email, query::getAsBoolean)) {
+            return true;
+        }
+        int previous = previousShardFor(email);
+        return previous >= 0 && onShard(previous, query::getAsBoolean);
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach): growing from n to n + 1 shards moves only the
+     * 1/(n + 1) of emails that now belong on the new shard. Rows are placed by this, so the
+     * hash must never change.
+     */
+    public static int shardFor(String email, int shards) {
+        long key = hash(email);
+        long bucket = -1;
+        long next = 0;
+        while (next < shards) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // FNV-1a over the UTF-16 chars with a 64-bit finalizer, so similar emails spread out
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
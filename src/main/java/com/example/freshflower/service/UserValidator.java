@@ -0,0 +1,57 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Field rules for registration and import, shared by the servlet and reactive stacks.
+ * Failures are {@link IllegalArgumentException}s whose message is shown to the client.
+ */
+@Component
+public class UserValidator {
+
+    private final EmailNormalizer emailNormalizer;
+
+    public UserValidator(EmailNormalizer emailNormalizer) {
+        this.emailNormalizer = emailNormalizer;
+    }
+
+    // Also sets the normalized email: the email keeps the casing the user typed
+    public void validateUser(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        String normalized = validateEmail(user.getEmail());
+        user.setEmail(user.getEmail().trim());
+        user.setEmailNormalized(normalized);
+        validatePassword(user.getPassword());
+        validateFullName(user.getFullName());
+    }
+
+    // Returns the normalized email, which is what gets cached and looked up
+    public String validateEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        String normalized = emailNormalizer.normalize(email);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        return normalized;
+    }
+
+    public void validatePassword(String password) {
+        if (password == null || password.trim().isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be null or empty");
+        }
+        if (password.length() < 8) {
+            throw new IllegalArgumentException("Password must be at least 8 characters long");
+        }
+    }
+
+    public void validateFullName(String fullName) {
+        if (fullName == null || fullName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Full name cannot be null or empty");
+        }
+    }
+}
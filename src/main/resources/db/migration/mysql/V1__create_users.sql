@@ -0,0 +1,20 @@
+-- Schema as Hibernate created it under ddl-auto=update, including email_normalized.
+-- Databases that already have these tables are baselined at version 1 (spring.flyway.baseline-on-migrate).
+create table users (
+    id bigint not null,
+    created_at datetime(6),
+    email varchar(100) not null,
+    email_normalized varchar(100),
+    full_name varchar(150) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_email_normalized unique (email_normalized)
+) engine=InnoDB;
+
+-- Backs the pooled users_seq generator (MySQL has no sequences)
+create table users_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into users_seq values (1);
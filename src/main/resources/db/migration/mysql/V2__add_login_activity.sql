@@ -0,0 +1,4 @@
+-- Login activity, maintained by the write-behind LoginActivityRecorder
+alter table users
+    add column last_login_at datetime(6),
+    add column login_count bigint not null default 0;
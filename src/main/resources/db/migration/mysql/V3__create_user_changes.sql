@@ -0,0 +1,9 @@
+-- Change log tailed by UserChangePoller on every instance to invalidate its user caches
+create table user_changes (
+    id bigint not null auto_increment,
+    changed_at datetime(6) not null,
+    email_normalized varchar(100) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_user_changes_changed_at on user_changes (changed_at);
@@ -0,0 +1,7 @@
+-- Databases baselined at V1 from the auto-increment schema have no users_seq yet.
+-- UserIdSequenceFloor moves it past the existing ids at startup.
+create table if not exists users_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into users_seq (next_val) select 1 from dual where not exists (select * from users_seq);
@@ -0,0 +1,20 @@
+-- Databases baselined at V1 from the pre-normalization schema have no email_normalized column or
+-- unique index yet. EmailNormalizedBackfill fills the column at startup. MySQL has no
+-- "add column if not exists", so each statement is only prepared when information_schema lacks it.
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'users' and column_name = 'email_normalized') = 0,
+    'alter table users add column email_normalized varchar(100)',
+    'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- Any unique index on the column will do; ddl-auto=update named its own
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'users' and column_name = 'email_normalized'
+                 and non_unique = 0) = 0,
+    'alter table users add constraint uk_users_email_normalized unique (email_normalized)',
+    'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
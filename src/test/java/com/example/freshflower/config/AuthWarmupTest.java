@@ -0,0 +1,74 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.repository.UserRepository;
+import com.example.freshflower.service.LoginActivityRecorder;
+import com.example.freshflower.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "freshflower.warmup.enabled=true",
+        "freshflower.warmup.iterations=3"
+})
+@ActiveProfiles("h2")
+@DisplayName("Auth Warm-up Tests")
+class AuthWarmupTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @SpyBean
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Test
+    @DisplayName("✅ Should run synthetic logins at startup and leave no users behind")
+    void startup_WithWarmup_ShouldRollBackSyntheticUsers() {
+        // Assert: the rounds ran through the real login path (two password checks each)...
+        long verified = meterRegistry.get("freshflower.auth.phase").tag("phase", "hash_verify").timer().count();
+        assertTrue(verified >= 6, "expected at least 6 warm-up password checks, got " + verified);
+
+        // ...and were rolled back, including what the lookup cache had seen
+        assertFalse(userRepository.existsByEmailNormalized("warmup-0@warmup.invalid"));
+        assertFalse(userService.emailExists("warmup-0@warmup.invalid"));
+        assertNull(userService.findByEmail("warmup-2@warmup.invalid"));
+    }
+
+    @Test
+    @DisplayName("✅ Should keep the synthetic users out of login activity and outcome counts")
+    void startup_WithWarmup_ShouldLeaveNoSideEffects() {
+        // Assert
+        verify(loginActivityRecorder, never()).record(any());
+        assertEquals(0.0, meterRegistry.get("freshflower.auth.outcomes").counters().stream()
+                .mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    @DisplayName("✅ Should report ready and start the first-minute latency timer after warm-up")
+    void startup_WithWarmup_ShouldReportReadyAfterwards() {
+        // Assert
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertNotNull(meterRegistry.find("freshflower.auth.login.first-minute").tag("warmup", "true").timer());
+    }
+}
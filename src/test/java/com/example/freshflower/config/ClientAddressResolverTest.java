@@ -0,0 +1,69 @@
+package com.example.freshflower.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "freshflower.throttle.max-attempts-per-address=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@DisplayName("Client Address Resolver Tests")
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = new ClientAddressResolver(List.of("10.0.0.0/8", "127.0.0.1"));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("✅ Should take the rightmost untrusted hop behind a trusted proxy")
+    void resolve_TrustedPeer_ShouldUseForwardedClient() {
+        assertEquals("203.0.113.7", resolver.resolve("10.1.2.3", "203.0.113.7"));
+        // The leftmost entry was sent by the client; only the hop our proxies appended counts
+        assertEquals("203.0.113.7", resolver.resolve("10.1.2.3", "198.51.100.1, 203.0.113.7, 10.4.5.6"));
+        assertEquals("10.1.2.3", resolver.resolve("10.1.2.3", "10.4.5.6"));
+    }
+
+    @Test
+    @DisplayName("❌ Should ignore X-Forwarded-For from an untrusted peer")
+    void resolve_UntrustedPeer_ShouldUsePeer() {
+        assertEquals("203.0.113.9", resolver.resolve("203.0.113.9", "198.51.100.1"));
+        assertEquals("10.1.2.3", resolver.resolve("10.1.2.3", null));
+        assertEquals("203.0.113.7", resolver.resolve("10.1.2.3", "not-an-address, 203.0.113.7"));
+    }
+
+    @Test
+    @DisplayName("✅ Should throttle each forwarded client separately behind the load balancer")
+    void login_ForwardedFor_ShouldThrottlePerClient() throws Exception {
+        // Arrange: MockMvc requests come from 127.0.0.1, a trusted proxy
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, login("user" + i + "@example.com", "203.0.113.1"));
+        }
+
+        // Act & Assert
+        assertEquals(429, login("user9@example.com", "203.0.113.1"));
+        assertEquals(401, login("user9@example.com", "203.0.113.2"));
+    }
+
+    private int login(String email, String forwardedFor) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/login")
+                        .header(ClientAddressResolver.X_FORWARDED_FOR, forwardedFor)
+                        .contentType("application/json")
+                        .content("{\"email\":\"" + email + "\",\"password\":\"Password123\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots against a database the pre-normalization app created under ddl-auto=update: no
+ * email_normalized column, no unique index on it and no users_seq. Flyway baselines it at V1 the
+ * way the prod profile does and Hibernate validates the result.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + LegacySchemaMigrationTest.LEGACY_URL,
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("h2")
+@DisplayName("Legacy Schema Migration Tests")
+class LegacySchemaMigrationTest {
+
+    static final String LEGACY_URL = "jdbc:h2:mem:freshflower_prenormalized;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    static {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(LEGACY_URL, "sa", ""));
+        legacy.execute("create table users (id bigint auto_increment primary key, created_at timestamp(6),"
+                + " email varchar(100) not null unique, full_name varchar(150) not null,"
+                + " password varchar(255) not null)");
+        legacy.update("insert into users (email, full_name, password) values (?, ?, ?)",
+                "Legacy.User@Example.com", "Legacy", new BCryptPasswordEncoder(4).encode("Password123"));
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("✅ Should add email_normalized and its unique index to a baselined legacy schema")
+    void startup_OnLegacySchema_ShouldAddEmailNormalized() {
+        // Act
+        Integer version = jdbcTemplate.queryForObject(
+                "select max(cast(\"version\" as int)) from \"flyway_schema_history\" where \"success\"", Integer.class);
+        String normalized = jdbcTemplate.queryForObject("select email_normalized from users", String.class);
+
+        // Assert: backfilled at startup, and a second row with the same value is refused
+        assertEquals(5, version);
+        assertEquals("legacy.user@example.com", normalized);
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into users (id, email, email_normalized, full_name, password) values (?, ?, ?, ?, ?)",
+                1000, "other@example.com", normalized, "Other", "hash"));
+    }
+
+    @Test
+    @DisplayName("✅ Should log in a legacy user after the migration")
+    void login_OnMigratedLegacySchema_ShouldSucceed() {
+        // Act
+        LoginResult result = userService.login("legacy.user@example.com", "Password123");
+
+        // Assert
+        assertInstanceOf(LoginResult.Success.class, result);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.freshflower.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Encoder Calibrator Tests")
+class PasswordEncoderCalibratorTest {
+
+    @Test
+    @DisplayName("✅ Should use a configured strength without measuring")
+    void calibrate_WithFixedStrength_ShouldReturnIt() {
+        PasswordEncoderCalibrator calibrator = new PasswordEncoderCalibrator(12, Duration.ofNanos(1), 10, 14);
+
+        assertEquals(12, calibrator.calibrate());
+    }
+
+    @Test
+    @DisplayName("✅ Should never go below the minimum strength")
+    void calibrate_WithTinyBudget_ShouldReturnFloor() {
+        PasswordEncoderCalibrator calibrator = new PasswordEncoderCalibrator(null, Duration.ofNanos(1), 4, 8);
+
+        assertEquals(4, calibrator.calibrate());
+    }
+
+    @Test
+    @DisplayName("✅ Should pick a stronger cost when the budget allows")
+    void calibrate_WithGenerousBudget_ShouldRaiseStrength() {
+        PasswordEncoderCalibrator calibrator = new PasswordEncoderCalibrator(null, Duration.ofSeconds(5), 4, 6);
+
+        assertEquals(6, calibrator.calibrate());
+    }
+}
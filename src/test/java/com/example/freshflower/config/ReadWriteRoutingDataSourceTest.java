@@ -0,0 +1,153 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.AccessTokenService;
+import com.example.freshflower.service.EmailAlreadyExistsException;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two unrelated H2 databases stand in for primary and replica. With no replication between them,
+ * where a row is visible shows where each query was routed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:freshflower_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "freshflower.read-replicas.enabled=true",
+        "freshflower.read-replicas.urls=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "freshflower.read-replicas.read-your-writes-window=1m",
+        "freshflower.user-cache.enabled=false",
+        "freshflower.security.admin-user-ids=42"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@DisplayName("Read/Write Routing DataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:freshflower_replica;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from users");
+        new JdbcTemplate(primaryDataSource).update("delete from users");
+    }
+
+    @Test
+    @DisplayName("✅ Should serve login from the replica")
+    void login_ShouldReadFromReplica() throws Exception {
+        // Arrange: the row exists only on the replica
+        replica.update("insert into users (id, email, email_normalized, password, full_name) values (?, ?, ?, ?, ?)",
+                1000L, "replica@example.com", "replica@example.com", passwordEncoder.encode("Password123"), "Replica");
+
+        // Act
+        Long userId = assertInstanceOf(LoginResult.Success.class,
+                userService.login("replica@example.com", "Password123")).credentials().id();
+
+        // Assert
+        assertEquals(1000L, userId);
+        assertFalse(onPrimary("replica@example.com"));
+    }
+
+    @Test
+    @DisplayName("✅ Should write registrations to the primary and read them back within the window")
+    void registerUser_ShouldWriteToPrimaryAndReadYourWrites() throws Exception {
+        // Act
+        User saved = userService.registerUser(new User("fresh@example.com", "Password123", "Fresh"));
+
+        // Assert: not replicated, yet login and emailExists see it through the read-your-writes window
+        assertTrue(onPrimary("fresh@example.com"));
+        assertEquals(0, replica.queryForObject("select count(*) from users", Integer.class));
+        assertEquals(saved.getId(), assertInstanceOf(LoginResult.Success.class,
+                userService.login("fresh@example.com", "Password123")).credentials().id());
+        assertTrue(userService.emailExists("fresh@example.com"));
+    }
+
+    @Test
+    @DisplayName("❌ Should detect a duplicate against the primary even when the replica lags")
+    void registerUser_DuplicateOnPrimaryOnly_ShouldReportEmailExists() {
+        // Arrange: an earlier registration (from another node, so no window here) not yet replicated
+        new JdbcTemplate(primaryDataSource).update(
+                "insert into users (id, email, email_normalized, password, full_name) values (?, ?, ?, ?, ?)",
+                2000L, "taken@example.com", "taken@example.com", "hash", "Taken");
+
+        // Act & Assert
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.registerUser(new User("taken@example.com", "Password123", "Again")));
+    }
+
+    @Test
+    @DisplayName("✅ Should write an HTTP import to the primary, checking duplicates there")
+    void importUsers_OverHttp_ShouldWriteToPrimary() throws Exception {
+        // Arrange: one email already exists, not yet replicated
+        new JdbcTemplate(primaryDataSource).update(
+                "insert into users (id, email, email_normalized, password, full_name) values (?, ?, ?, ?, ?)",
+                3000L, "old@example.com", "old@example.com", "hash", "Old");
+        String body = "{\"email\":\"old@example.com\",\"password\":\"Password123\",\"fullName\":\"Old\"}\n"
+                + "{\"email\":\"new1@example.com\",\"password\":\"Password123\",\"fullName\":\"New\"}\n"
+                + "{\"email\":\"new2@example.com\",\"password\":\"Password123\",\"fullName\":\"New\"}\n";
+
+        // Act
+        mockMvc.perform(post("/api/users/import")
+                        .header("Authorization", "Bearer " + accessTokenService.issue(42L))
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        // Assert
+        assertTrue(onPrimary("new1@example.com"));
+        assertTrue(onPrimary("new2@example.com"));
+        assertEquals(0, replica.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to start with open-in-view on")
+    void readWriteRoutingDataSource_OpenInView_ShouldThrow() {
+        assertThrows(IllegalStateException.class, () -> new ReadReplicaConfig()
+                .readWriteRoutingDataSource(null, null, List.of(), null, null, 1, null, true));
+    }
+
+    private boolean onPrimary(String email) {
+        return new JdbcTemplate(primaryDataSource)
+                .queryForObject("select count(*) from users where email = ?", Integer.class, email) > 0;
+    }
+}
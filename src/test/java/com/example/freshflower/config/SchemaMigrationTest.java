@@ -0,0 +1,54 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Boots the way the prod profile does: schema from the migrations, Hibernate only validates it
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:freshflower_migrations;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("h2")
+@DisplayName("Schema Migration Tests")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("✅ Should apply the migrations and pass Hibernate schema validation")
+    void startup_WithMigrations_ShouldValidateSchema() {
+        // Act
+        Integer version = jdbcTemplate.queryForObject(
+                "select max(cast(\"version\" as int)) from \"flyway_schema_history\" where \"success\"", Integer.class);
+
+        // Assert
+        assertEquals(5, version);
+    }
+
+    @Test
+    @DisplayName("✅ Should register and log in against the migrated schema")
+    void registerAndLogin_OnMigratedSchema_ShouldSucceed() throws Exception {
+        // Arrange
+        User saved = userService.registerUser(new User("Migrated@Example.com", "password123", "Migrated User"));
+
+        // Act
+        LoginResult result = userService.login("migrated@example.com", "password123");
+
+        // Assert
+        assertEquals(saved.getId(), assertInstanceOf(LoginResult.Success.class, result).credentials().id());
+    }
+}
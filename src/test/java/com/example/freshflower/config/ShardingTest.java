@@ -0,0 +1,218 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.AccessTokenService;
+import com.example.freshflower.service.EmailAlreadyExistsException;
+import com.example.freshflower.service.LoginResult;
+import com.example.freshflower.service.ShardRebalancer;
+import com.example.freshflower.service.UserService;
+import com.example.freshflower.service.UserShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Three unrelated H2 databases as shards 0, 1 and 2. Counting a user's rows on each shows where
+ * it was placed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:freshflower_shard0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "freshflower.sharding.enabled=true",
+        "freshflower.sharding.urls=" + ShardingTest.SHARD_1_URL + "," + ShardingTest.SHARD_2_URL,
+        "freshflower.user-cache.enabled=false",
+        "freshflower.security.admin-user-ids=42"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@DisplayName("Sharding Tests")
+class ShardingTest {
+
+    static final String SHARD_1_URL =
+            "jdbc:h2:mem:freshflower_shard1;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql'";
+    static final String SHARD_2_URL =
+            "jdbc:h2:mem:freshflower_shard2;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql'";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource shard0;
+
+    private final JdbcTemplate shard1 = new JdbcTemplate(new DriverManagerDataSource(SHARD_1_URL, "sa", ""));
+    private final JdbcTemplate shard2 = new JdbcTemplate(new DriverManagerDataSource(SHARD_2_URL, "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        for (int shard = 0; shard < 3; shard++) {
+            shard(shard).update("delete from users");
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should place each user on exactly one shard, chosen by email")
+    void registerUser_ShouldWriteToHomeShardOnly() throws Exception {
+        // Act
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String email = "user" + i + "@example.com";
+            User saved = userService.registerUser(new User(email, "Password123", "User " + i));
+            int home = userShards.shardFor(email);
+            used.add(home);
+
+            // Assert: only on its home shard, and found again through it
+            for (int shard = 0; shard < 3; shard++) {
+                assertEquals(shard == home ? 1 : 0, count(shard, email), email + " on shard " + shard);
+            }
+            assertEquals(saved.getId(), assertInstanceOf(LoginResult.Success.class,
+                    userService.login(email.toUpperCase(), "Password123")).credentials().id());
+            assertTrue(userService.emailExists(email));
+        }
+        assertEquals(Set.of(0, 1, 2), used);
+    }
+
+    @Test
+    @DisplayName("✅ Should give each shard's sequence its own id range")
+    void registerUser_ShouldKeepIdsGloballyUnique() throws Exception {
+        // Act
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String email = "ids" + i + "@example.com";
+            ids.add(userService.registerUser(new User(email, "Password123", "Ids")).getId());
+        }
+
+        // Assert
+        assertEquals(30, ids.size());
+        for (int shard = 1; shard < 3; shard++) {
+            long next = shard(shard).queryForObject(
+                    "select base_value from information_schema.sequences where sequence_name = 'USERS_SEQ'", Long.class);
+            assertTrue(next > ShardIdRanges.rangeStart(shard) && next < ShardIdRanges.rangeStart(shard + 1),
+                    "users_seq at " + next + " on shard " + shard);
+        }
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a duplicate email on its home shard")
+    void registerUser_Duplicate_ShouldThrow() throws Exception {
+        // Arrange
+        userService.registerUser(new User("taken@example.com", "Password123", "Taken"));
+
+        // Act & Assert
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.registerUser(new User("Taken@Example.com", "Password123", "Again")));
+    }
+
+    @Test
+    @DisplayName("✅ Should move rows of a single-shard deployment to their home shards")
+    void rebalance_ShouldMoveMisplacedRows() {
+        // Arrange: everything on shard 0, as before shards 1 and 2 were added
+        String hash = passwordEncoder.encode("Password123");
+        for (int i = 0; i < 30; i++) {
+            shard(0).update("insert into users (id, email, email_normalized, password, full_name) values (?, ?, ?, ?, ?)",
+                    1000L + i, "legacy" + i + "@example.com", "legacy" + i + "@example.com", hash, "Legacy");
+        }
+
+        // Act
+        ShardRebalancer.Report report = shardRebalancer.rebalance();
+
+        // Assert: every row on its home shard, with its id, and logins work
+        long misplaced = IntStream.range(0, 30)
+                .filter(i -> userShards.shardFor("legacy" + i + "@example.com") != 0).count();
+        assertEquals(misplaced, report.moved());
+        assertEquals(0, report.conflicts());
+        for (int i = 0; i < 30; i++) {
+            String email = "legacy" + i + "@example.com";
+            int home = userShards.shardFor(email);
+            for (int shard = 0; shard < 3; shard++) {
+                assertEquals(shard == home ? 1 : 0, count(shard, email), email + " on shard " + shard);
+            }
+            assertEquals(1000L + i, assertInstanceOf(LoginResult.Success.class,
+                    userService.login(email, "Password123")).credentials().id());
+        }
+        assertEquals(0, shardRebalancer.rebalance().moved());
+    }
+
+    @Test
+    @DisplayName("✅ Should import each row over HTTP onto its own home shard")
+    void importUsers_OverHttp_ShouldWriteToHomeShards() throws Exception {
+        // Arrange
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            body.append("{\"email\":\"import").append(i).append("@example.com\",\"password\":\"Password123\",\"fullName\":\"Import\"}\n");
+        }
+
+        // Act: one request, so one open session if open-in-view were on
+        mockMvc.perform(post("/api/users/import")
+                        .header("Authorization", "Bearer " + accessTokenService.issue(42L))
+                        .contentType("application/x-ndjson")
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(30));
+
+        // Assert
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String email = "import" + i + "@example.com";
+            int home = userShards.shardFor(email);
+            used.add(home);
+            for (int shard = 0; shard < 3; shard++) {
+                assertEquals(shard == home ? 1 : 0, count(shard, email), email + " on shard " + shard);
+            }
+        }
+        assertEquals(Set.of(0, 1, 2), used);
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to start with open-in-view on")
+    void shardRoutingDataSource_OpenInView_ShouldThrow() {
+        assertThrows(IllegalStateException.class,
+                () -> new ShardingConfig().shardRoutingDataSource(null, null, List.of(), null, null, 1, true));
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return switch (shard) {
+            case 0 -> new JdbcTemplate(shard0);
+            case 1 -> shard1;
+            default -> shard2;
+        };
+    }
+
+    private int count(int shard, String email) {
+        return shard(shard).queryForObject("select count(*) from users where email = ?", Integer.class, email);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.service.AccessTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "freshflower.security.admin-user-ids=42")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@DisplayName("Token Authentication Filter Tests")
+class TokenAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    @DisplayName("❌ Should reject protected requests without a token")
+    void protectedRequest_WithoutToken_ShouldBeUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/me"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("❌ Should reject protected requests with an invalid token")
+    void protectedRequest_WithInvalidToken_ShouldBeUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer abc.def.ghi"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("✅ Should authenticate protected requests with a valid token")
+    void protectedRequest_WithValidToken_ShouldPassSecurity() throws Exception {
+        String token = accessTokenService.issue(1L);
+
+        // Authenticated, so the request reaches MVC (which has no handler for it)
+        mockMvc.perform(get("/api/users/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("❌ Should forbid bulk import to users without the admin role")
+    void importUsers_WithUserToken_ShouldBeForbidden() throws Exception {
+        String token = accessTokenService.issue(1L);
+
+        mockMvc.perform(post("/api/users/import")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/x-ndjson")
+                        .content("{\"email\":\"x@example.com\",\"password\":\"Password123\",\"fullName\":\"X\"}\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("✅ Should let an admin run a bulk import")
+    void importUsers_WithAdminToken_ShouldImport() throws Exception {
+        String token = accessTokenService.issue(42L);
+
+        mockMvc.perform(post("/api/users/import")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType("application/x-ndjson")
+                        .content("{\"email\":\"x@example.com\",\"password\":\"Password123\",\"fullName\":\"X\"}\n"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("❌ Should keep metrics private and health public")
+    void actuator_ShouldOnlyExposeHealth() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + accessTokenService.issue(1L)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + accessTokenService.issue(42L)))
+                .andExpect(status().isOk());
+    }
+}
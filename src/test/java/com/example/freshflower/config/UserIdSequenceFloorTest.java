@@ -0,0 +1,67 @@
+package com.example.freshflower.config;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots against a database created before the pooled id generator: auto-increment ids, rows
+ * already there and no users_seq. Flyway baselines it at V1 the way the prod profile does.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + UserIdSequenceFloorTest.LEGACY_URL,
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("h2")
+@DisplayName("User Id Sequence Floor Tests")
+class UserIdSequenceFloorTest {
+
+    static final String LEGACY_URL = "jdbc:h2:mem:freshflower_legacy;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final long LEGACY_MAX_ID = 5000;
+
+    static {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(LEGACY_URL, "sa", ""));
+        legacy.execute("create table users (id bigint auto_increment primary key, created_at timestamp(6),"
+                + " email varchar(100) not null unique, email_normalized varchar(100) unique,"
+                + " full_name varchar(150) not null, password varchar(255) not null)");
+        for (long id = LEGACY_MAX_ID - 9; id <= LEGACY_MAX_ID; id++) {
+            legacy.update("insert into users (id, email, email_normalized, full_name, password) values (?, ?, ?, ?, ?)",
+                    id, "legacy" + id + "@example.com", "legacy" + id + "@example.com", "Legacy", "hash");
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("✅ Should give new users ids above the existing rows")
+    void registerUser_OnLegacyRows_ShouldNotReuseIds() throws Exception {
+        // Act: more than one pooled block
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            ids.add(userService.registerUser(new User("new" + i + "@example.com", "Password123", "New")).getId());
+        }
+
+        // Assert
+        assertEquals(60, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > LEGACY_MAX_ID), "ids " + ids);
+        assertEquals(70, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.freshflower.controller;
+
+import com.example.freshflower.service.DatabaseWorkExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "freshflower.database-work.threads=1",
+        "freshflower.database-work.queue-capacity=1",
+        "freshflower.hashing.retry-after-seconds=7"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@DisplayName("Auth Controller Tests")
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseWorkExecutor databaseWorkExecutor;
+
+    @Test
+    @DisplayName("❌ Should answer 503 with Retry-After when the database work queue is full")
+    void register_DatabaseWorkSaturated_ShouldBeServiceUnavailable() throws Exception {
+        // Arrange: occupy the only worker and the only queue slot
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        databaseWorkExecutor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        databaseWorkExecutor.execute(() -> { });
+
+        try {
+            // Act
+            MvcResult pending = mockMvc.perform(post("/api/auth/register")
+                            .contentType("application/json")
+                            .content("{\"email\":\"busy@example.com\",\"password\":\"Password123\",\"fullName\":\"Busy\"}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Assert
+            mockMvc.perform(asyncDispatch(pending))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
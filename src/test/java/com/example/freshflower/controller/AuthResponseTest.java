@@ -0,0 +1,91 @@
+package com.example.freshflower.controller;
+
+import com.example.freshflower.config.AuthResponseCodecConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Auth Response Encoding Tests")
+class AuthResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("✅ Should encode a login response with the same fields as before")
+    void loginResponse_ShouldEncodeAllFields() throws Exception {
+        // Act
+        byte[] json = LoginResponse.of(42L, "header.payload.signature", "900").toJson();
+
+        // Assert
+        assertEquals(Map.of(
+                "message", "Login successful",
+                "userId", "42",
+                "token", "header.payload.signature",
+                "tokenType", "Bearer",
+                "expiresIn", "900"), parse(json));
+    }
+
+    @Test
+    @DisplayName("✅ Should escape fields that are not plain ASCII")
+    void loginResponse_WithCharactersToEscape_ShouldStillBeValidJson() throws Exception {
+        // Act
+        byte[] json = new LoginResponse("Login \"ok\"", "42", "tök\\en", "Bearer", "900").toJson();
+
+        // Assert
+        Map<String, String> parsed = parse(json);
+        assertEquals("Login \"ok\"", parsed.get("message"));
+        assertEquals("tök\\en", parsed.get("token"));
+    }
+
+    @Test
+    @DisplayName("✅ Should reuse the encoded bytes and instance for constant messages")
+    void messageResponse_Constant_ShouldBeCached() throws Exception {
+        // Act
+        MessageResponse response = MessageResponse.of("Invalid password");
+
+        // Assert
+        assertSame(response, MessageResponse.of("Invalid password"));
+        assertSame(response.toJson(), response.toJson());
+        assertEquals(Map.of("message", "Invalid password"), parse(response.toJson()));
+    }
+
+    @Test
+    @DisplayName("✅ Should encode other messages per response")
+    void messageResponse_Dynamic_ShouldEncodeAndEscape() throws Exception {
+        // Act
+        MessageResponse response = MessageResponse.of("Registration failed: bad \"input\"\n");
+
+        // Assert
+        assertEquals(Map.of("message", "Registration failed: bad \"input\"\n"), parse(response.toJson()));
+    }
+
+    @Test
+    @DisplayName("✅ Should write the pre-encoded bytes through the servlet converter")
+    @SuppressWarnings("unchecked")
+    void converter_ShouldWritePreEncodedJson() throws Exception {
+        // Arrange
+        HttpMessageConverter<AuthResponse> converter = new AuthResponseCodecConfig().authResponseHttpMessageConverter();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(MessageResponse.REGISTERED, MediaType.APPLICATION_JSON, output);
+
+        // Assert
+        assertTrue(converter.canWrite(LoginResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(LoginResponse.class, MediaType.APPLICATION_JSON));
+        assertArrayEquals(MessageResponse.REGISTERED.toJson(), output.getBodyAsBytes());
+        assertEquals(output.getBodyAsBytes().length, output.getHeaders().getContentLength());
+    }
+
+    private Map<String, String> parse(byte[] json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {});
+    }
+}
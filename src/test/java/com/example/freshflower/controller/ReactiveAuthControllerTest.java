@@ -0,0 +1,129 @@
+package com.example.freshflower.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///freshflower_reactive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/migration/h2/V1__create_users.sql,classpath:db/migration/h2/V2__add_login_activity.sql,"
+                + "classpath:db/migration/h2/V3__create_user_changes.sql",
+        "spring.sql.init.data-locations=classpath:reactive-legacy-users.sql"
+})
+@ActiveProfiles({"h2", "reactive"})
+@DisplayName("Reactive Auth Controller Tests")
+class ReactiveAuthControllerTest {
+
+    private static final String PASSWORD = "Password123";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("✅ Should register and then log in with a bearer token")
+    void registerThenLogin_ShouldIssueToken() {
+        // Act & Assert
+        register("reactive.user@example.com").expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("User registered successfully");
+
+        login("Reactive.User@Example.com", PASSWORD).expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Login successful")
+                .jsonPath("$.tokenType").isEqualTo("Bearer")
+                .jsonPath("$.token").isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("✅ Should log a registration for servlet nodes sharing the database")
+    void register_ShouldAppendUserChange() {
+        // Act
+        register("reactive.logged@example.com").expectStatus().isOk();
+
+        // Assert
+        Long logged = databaseClient.sql("select count(*) from user_changes where email_normalized = :email")
+                .bind("email", "reactive.logged@example.com")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block();
+        assertEquals(1L, logged);
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a second registration with the same email")
+    void register_DuplicateEmail_ShouldReturnBadRequest() {
+        // Arrange
+        register("reactive.duplicate@example.com").expectStatus().isOk();
+
+        // Act & Assert
+        register("REACTIVE.duplicate@example.com").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Email already exists");
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a wrong password and an unknown user with 401")
+    void login_BadCredentials_ShouldReturnUnauthorized() {
+        // Arrange
+        register("reactive.badpass@example.com").expectStatus().isOk();
+
+        // Act & Assert
+        login("reactive.badpass@example.com", "Wrong" + PASSWORD).expectStatus().isUnauthorized()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid password");
+        login("reactive.nobody@example.com", PASSWORD).expectStatus().isUnauthorized()
+                .expectBody().jsonPath("$.message").isEqualTo("User not found");
+    }
+
+    @Test
+    @DisplayName("✅ Should log in users the email backfill hasn't reached yet")
+    void login_LegacyRowWithoutNormalizedEmail_ShouldFallBackToRawEmail() {
+        // Act & Assert
+        login("Reactive.Unbackfilled@Example.com", PASSWORD).expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Login successful");
+        login("Reactive.Legacy@My_Domain.com", PASSWORD).expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Login successful");
+    }
+
+    @Test
+    @DisplayName("❌ Should reject registering the email of a row the backfill hasn't reached yet")
+    void register_EmailOfLegacyRow_ShouldReturnBadRequest() {
+        // Act & Assert
+        register("reactive.unbackfilled@example.com").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Email already exists");
+    }
+
+    @Test
+    @DisplayName("❌ Should report validation failures like the servlet controller")
+    void register_InvalidEmail_ShouldReturnServerError() {
+        // Act & Assert
+        register("not-an-email").expectStatus().isEqualTo(500)
+                .expectBody().jsonPath("$.message").isEqualTo("Registration failed: Invalid email format");
+    }
+
+    private WebTestClient.ResponseSpec register(String email) {
+        return post("/api/auth/register",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Reactive User\"}");
+    }
+
+    private WebTestClient.ResponseSpec login(String email, String password) {
+        return post("/api/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+    }
+
+    private WebTestClient.ResponseSpec post(String path, String body) {
+        return webTestClient.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+}
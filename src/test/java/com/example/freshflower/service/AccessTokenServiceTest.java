@@ -0,0 +1,111 @@
+package com.example.freshflower.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Access Token Service Tests")
+class AccessTokenServiceTest {
+
+    private static final String KEY_1 = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String KEY_2 = "k2:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private AccessTokenService service(String keys, String activeKeyId) {
+        return new AccessTokenService(keys, activeKeyId, Duration.ofMinutes(15), 100, new ObjectMapper(), clock);
+    }
+
+    @Test
+    @DisplayName("✅ Should verify a token it issued")
+    void verify_IssuedToken_ShouldReturnUserId() {
+        AccessTokenService service = service(KEY_1, "k1");
+
+        String token = service.issue(42L);
+        AccessTokenService.AccessToken verified = service.verify(token).orElseThrow();
+
+        assertEquals(42L, verified.userId());
+        assertEquals(Instant.parse("2026-01-01T00:15:00Z"), verified.expiresAt());
+        assertEquals(3, token.split("\\.").length);
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a tampered token")
+    void verify_TamperedPayload_ShouldReturnEmpty() {
+        AccessTokenService service = service(KEY_1, "k1");
+        String[] parts = service.issue(42L).split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"1\",\"iat\":0,\"exp\":9999999999}".getBytes());
+
+        assertTrue(service.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(service.verify("not-a-token").isEmpty());
+        assertTrue(service.verify(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("❌ Should reject an expired token even after it was cached as verified")
+    void verify_ExpiredToken_ShouldReturnEmpty() {
+        AccessTokenService service = service(KEY_1, "k1");
+        String token = service.issue(42L);
+        assertTrue(service.verify(token).isPresent());
+
+        clock.advance(Duration.ofMinutes(15));
+
+        assertTrue(service.verify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("✅ Should keep accepting tokens from the previous key after rotation")
+    void verify_AfterKeyRotation_ShouldAcceptOldAndNewKeys() {
+        String oldToken = service(KEY_1, "k1").issue(7L);
+        AccessTokenService rotated = service(KEY_1 + "," + KEY_2, "k2");
+
+        String newToken = rotated.issue(8L);
+
+        assertEquals(7L, rotated.verify(oldToken).orElseThrow().userId());
+        assertEquals(8L, rotated.verify(newToken).orElseThrow().userId());
+        assertTrue(service(KEY_1, "k1").verify(newToken).isEmpty());
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse keys shorter than 256 bits")
+    void constructor_WithShortKey_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service("k1:" + Base64.getEncoder().encodeToString(new byte[16]), "k1"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.freshflower.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Database Work Executor Tests")
+class DatabaseWorkExecutorTest {
+
+    private final DatabaseWorkExecutor executor = new DatabaseWorkExecutor(1, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("❌ Should fail a stage fast when the database work queue is full")
+    void thenApplyAsync_WhenQueueIsFull_ShouldFailWithCapacityExceeded() throws Exception {
+        // Arrange: occupy the only worker and the only queue slot
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            return await(release);
+        }, executor);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> true, executor);
+
+        // Act: the way UserService hands over after hashing
+        CompletableFuture<Boolean> rejected = CompletableFuture.completedFuture("hash")
+                .thenApplyAsync(hash -> true, executor);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        HashingCapacityExceededException cause =
+                assertInstanceOf(HashingCapacityExceededException.class, exception.getCause());
+        assertEquals(5, cause.getRetryAfterSeconds());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getQueueSize());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "freshflower.email-backfill.batch-size=2")
+@ActiveProfiles("h2")
+@DisplayName("Email Normalized Backfill Tests")
+class EmailNormalizedBackfillTest {
+
+    @Autowired
+    private EmailNormalizedBackfill backfill;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("✅ Should fill email_normalized for legacy rows, skip collisions and invalid emails and stay incomplete")
+    void run_LegacyRows_ShouldBackfillNormalizedEmail() {
+        // Arrange: rows saved directly, as they were before the column existed
+        Long mixedCase = userRepository.saveAndFlush(new User("Mixed.Case@Example.com", "hash", "Mixed")).getId();
+        Long plain = userRepository.saveAndFlush(new User("plain@example.com", "hash", "Plain")).getId();
+        Long first = userRepository.saveAndFlush(new User("twin@example.com", "hash", "Twin")).getId();
+        Long second = userRepository.saveAndFlush(new User("TWIN@example.com", "hash", "Twin again")).getId();
+        Long invalid = userRepository.saveAndFlush(new User("not an email", "hash", "Broken")).getId();
+        Long looser = userRepository.saveAndFlush(new User("Legacy@My_Domain.com", "hash", "Legacy")).getId();
+
+        // Act
+        backfill.run(null);
+
+        // Assert
+        assertFalse(backfill.isComplete());
+        assertEquals(2, backfill.getSkipped());
+        assertEquals("mixed.case@example.com", userRepository.findById(mixedCase).orElseThrow().getEmailNormalized());
+        assertEquals("plain@example.com", userRepository.findById(plain).orElseThrow().getEmailNormalized());
+        assertEquals("twin@example.com", userRepository.findById(first).orElseThrow().getEmailNormalized());
+        assertNull(userRepository.findById(second).orElseThrow().getEmailNormalized());
+        assertNull(userRepository.findById(invalid).orElseThrow().getEmailNormalized());
+        assertEquals("legacy@my_domain.com", userRepository.findById(looser).orElseThrow().getEmailNormalized());
+        assertEquals(mixedCase, userService.findByEmail("MIXED.case@example.com").getId());
+    }
+
+    @Test
+    @DisplayName("✅ Should complete once the skipped rows are merged and the backfill runs again")
+    void run_AfterMerge_ShouldComplete() {
+        // Arrange
+        userRepository.saveAndFlush(new User("twin@example.com", "hash", "Twin"));
+        Long second = userRepository.saveAndFlush(new User("TWIN@example.com", "hash", "Twin again")).getId();
+        backfill.run(null);
+        assertFalse(backfill.isComplete());
+
+        // Act: the duplicate account is merged away
+        userRepository.deleteById(second);
+        backfill.run(null);
+
+        // Assert
+        assertTrue(backfill.isComplete());
+        assertEquals(0, backfill.getSkipped());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.freshflower.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Email Normalizer Tests")
+class EmailNormalizerTest {
+
+    private final EmailNormalizer normalizer = new EmailNormalizer();
+
+    @Test
+    @DisplayName("✅ Should return an already-normalized email as the same instance")
+    void normalize_CanonicalEmail_ShouldNotAllocate() {
+        String email = "john.doe+flowers@example.com";
+
+        assertSame(email, normalizer.normalize(email));
+    }
+
+    @Test
+    @DisplayName("✅ Should trim and lower-case the email")
+    void normalize_MixedCaseWithWhitespace_ShouldCanonicalise() {
+        assertEquals("john.doe@example.com", normalizer.normalize("  John.Doe@Example.COM\t"));
+        assertEquals("a@b.co", normalizer.normalize("a@b.co "));
+    }
+
+    @Test
+    @DisplayName("✅ Should convert an internationalised domain to punycode")
+    void normalize_IdnDomain_ShouldConvertToAscii() {
+        assertEquals("anna@xn--bcher-kva.example", normalizer.normalize("Anna@Bücher.example"));
+        assertEquals("anna@xn--bcher-kva.example", normalizer.normalize("anna@BÜCHER.example"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "invalid-email", "@example.com", "john@", "john@@example.com",
+            "jo hn@example.com", "john@exa mple.com", "john@example..com", "john@.example.com",
+            "john@example.com.", "john@-example.com", "john@example-.com", "jöhn@example.com",
+            "john@exa_mple.com"})
+    @DisplayName("❌ Should reject malformed emails")
+    void normalize_Malformed_ShouldReturnNull(String email) {
+        assertNull(normalizer.normalize(email));
+        assertFalse(normalizer.isValid(email));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"John@My_Domain.com", "john@@example.com", "john@example..com", "john@example.com."})
+    @DisplayName("✅ Should still find addresses the original rule accepted")
+    void normalizeExisting_LegacyAddress_ShouldLowerCase(String email) {
+        assertNull(normalizer.normalize(email));
+        assertEquals(email.toLowerCase(), normalizer.normalizeExisting(" " + email));
+    }
+
+    @Test
+    @DisplayName("❌ Should reject for lookup what the original rule rejected")
+    void normalizeExisting_Malformed_ShouldReturnNull() {
+        assertSame("john@example.com", normalizer.normalizeExisting("john@example.com"));
+        assertNull(normalizer.normalizeExisting(null));
+        assertNull(normalizer.normalizeExisting("not an email"));
+        assertNull(normalizer.normalizeExisting("@example.com"));
+        assertNull(normalizer.normalizeExisting("john@"));
+        assertNull(normalizer.normalizeExisting("jo hn@example.com"));
+        assertNull(normalizer.normalizeExisting("jöhn@example.com"));
+    }
+
+    @Test
+    @DisplayName("❌ Should reject null and over-long emails")
+    void normalize_NullOrTooLong_ShouldReturnNull() {
+        assertNull(normalizer.normalize(null));
+        assertNull(normalizer.normalize("a".repeat(65) + "@example.com"));
+        assertNull(normalizer.normalize("john@" + "a".repeat(64) + ".com"));
+        assertNull(normalizer.normalize("john@" + ("a".repeat(60) + ".").repeat(5) + "com"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// Timer flushes are an hour apart, so only batch-size or an explicit flush() writes anything
+@SpringBootTest(properties = {
+        "freshflower.login-activity.flush-interval=1h",
+        "freshflower.login-activity.batch-size=5"
+})
+@ActiveProfiles("h2")
+@DisplayName("Login Activity Recorder Tests")
+class LoginActivityRecorderTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        loginActivityRecorder.flush();
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    @DisplayName("✅ Should write successful logins behind, merged per user")
+    void flush_ShouldCoalescePerUser() throws Exception {
+        // Arrange
+        long alice = userService.registerUser(new User("alice@example.com", "Password123", "Alice")).getId();
+        long bob = userService.registerUser(new User("bob@example.com", "Password123", "Bob")).getId();
+        userService.login("alice@example.com", "Password123");
+        userService.login("alice@example.com", "Password123");
+        userService.login("alice@example.com", "Wrong-Password");
+        userService.login("bob@example.com", "Password123");
+
+        // Assert: nothing written on the login path
+        assertEquals(0L, activity(alice).get("login_count"));
+
+        // Act
+        long drained = loginActivityRecorder.flush();
+
+        // Assert: failed logins don't count
+        assertEquals(3, drained);
+        assertEquals(2L, activity(alice).get("login_count"));
+        assertEquals(1L, activity(bob).get("login_count"));
+        assertNotNull(activity(alice).get("last_login_at"));
+        assertEquals(0.0, meterRegistry.get("freshflower.login.activity.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("✅ Should flush as soon as a full batch is waiting")
+    void record_FullBatch_ShouldFlushWithoutWaitingForTimer() throws Exception {
+        // Arrange
+        long carol = userService.registerUser(new User("carol@example.com", "Password123", "Carol")).getId();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            userService.login("carol@example.com", "Password123");
+        }
+
+        // Assert
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while ((long) activity(carol).get("login_count") < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(5L, activity(carol).get("login_count"));
+    }
+
+    @Test
+    @DisplayName("✅ Should keep the latest login time regardless of flush order")
+    void flush_OlderEvent_ShouldNotMoveLastLoginBack() throws Exception {
+        // Arrange
+        long dave = userService.registerUser(new User("dave@example.com", "Password123", "Dave")).getId();
+        Timestamp later = new Timestamp(System.currentTimeMillis() + 60_000);
+        jdbcTemplate.update("update users set last_login_at = ? where id = ?", later, dave);
+
+        // Act
+        userService.login("dave@example.com", "Password123");
+        loginActivityRecorder.flush();
+
+        // Assert
+        assertEquals(later, activity(dave).get("last_login_at"));
+        assertEquals(1L, activity(dave).get("login_count"));
+    }
+
+    @Test
+    @DisplayName("❌ Should drop and count events once the buffer is full")
+    void record_BufferFull_ShouldDropAndCount() throws Exception {
+        // Arrange: a two-slot buffer that is never flushed
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginActivityRecorder recorder = new LoginActivityRecorder(true, 2, 100, Duration.ofHours(1),
+                mock(JdbcTemplate.class), mock(TransactionTemplate.class), new UserShards(false, List.of(), 0),
+                new EmailNormalizer(), registry);
+        UserCredentials user = new UserCredentials(1L, "eve@example.com", "hash");
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            recorder.record(user);
+        }
+
+        // Assert
+        assertEquals(2.0, registry.get("freshflower.login.activity.events").tag("result", "recorded").counter().count());
+        assertEquals(3.0, registry.get("freshflower.login.activity.events").tag("result", "dropped").counter().count());
+        assertEquals(2.0, registry.get("freshflower.login.activity.queue.depth").gauge().value());
+    }
+
+    private Map<String, Object> activity(long userId) {
+        return jdbcTemplate.queryForMap("select login_count, last_login_at from users where id = ?", userId);
+    }
+}
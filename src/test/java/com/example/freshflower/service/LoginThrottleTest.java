@@ -0,0 +1,142 @@
+package com.example.freshflower.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Login Throttle Tests")
+class LoginThrottleTest {
+
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    // Start on a window boundary so the previous window carries no weight
+    private final AtomicLong now = new AtomicLong(WINDOW * 1000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginThrottle throttle(int maxPerEmail, int maxPerAddress) {
+        return new LoginThrottle(true, Duration.ofMinutes(1), maxPerEmail, maxPerAddress, 1000, new EmailNormalizer(), meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("✅ Should allow attempts up to the per-email limit")
+    void tryAcquire_UnderEmailLimit_ShouldAllow() {
+        // Arrange
+        LoginThrottle throttle = throttle(3, 100);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("john@example.com", "10.0.0.1"));
+        }
+        long retryAfter = throttle.tryAcquire("John@Example.com ", "10.0.0.2");
+        assertEquals(60, retryAfter);
+        assertEquals(1.0, meterRegistry.get("freshflower.login.throttled").tag("key", "email").counter().count());
+        // Other emails are unaffected
+        assertEquals(0, throttle.tryAcquire("jane@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("❌ Should throttle one address cycling through many emails")
+    void tryAcquire_OverAddressLimit_ShouldThrottle() {
+        // Arrange
+        LoginThrottle throttle = throttle(10, 5);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i + "@example.com", "10.0.0.1"));
+        }
+
+        // Assert
+        assertTrue(throttle.tryAcquire("user99@example.com", "10.0.0.1") > 0);
+        assertEquals(0, throttle.tryAcquire("user99@example.com", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("freshflower.login.throttled").tag("key", "address").counter().count());
+    }
+
+    @Test
+    @DisplayName("❌ Should still throttle when nanoTime is negative")
+    void tryAcquire_NegativeClock_ShouldThrottle() {
+        // Arrange: nanoTime has an arbitrary origin and may well be negative
+        now.set(-WINDOW * 1000);
+        LoginThrottle throttle = throttle(3, 100);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("john@example.com", "10.0.0.1"));
+        }
+
+        // Assert
+        assertTrue(throttle.tryAcquire("john@example.com", "10.0.0.1") > 0);
+
+        // The window still slides: two windows later nothing is left
+        now.addAndGet(2 * WINDOW);
+        assertEquals(0, throttle.tryAcquire("john@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("✅ Should let the previous window's attempts fade out as the window slides")
+    void tryAcquire_WindowSlides_ShouldWeightPreviousWindow() {
+        // Arrange
+        LoginThrottle throttle = throttle(4, 100);
+        for (int i = 0; i < 4; i++) {
+            throttle.tryAcquire("john@example.com", null);
+        }
+
+        // Act & Assert: a quarter into the next window 3 of the 4 attempts still count
+        now.addAndGet(WINDOW + WINDOW / 4);
+        assertEquals(0, throttle.tryAcquire("john@example.com", null));
+        assertTrue(throttle.tryAcquire("john@example.com", null) > 0);
+
+        // Two windows later nothing is left
+        now.addAndGet(2 * WINDOW);
+        assertEquals(0, throttle.tryAcquire("john@example.com", null));
+    }
+
+    @Test
+    @DisplayName("✅ Should never admit more than the limit under concurrent attempts")
+    void tryAcquire_Concurrent_ShouldAdmitExactlyLimit() throws Exception {
+        // Arrange
+        LoginThrottle throttle = throttle(50, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger admitted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (throttle.tryAcquire("john@example.com", null) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(50, admitted.get());
+    }
+
+    @Test
+    @DisplayName("✅ Should allow everything when disabled")
+    void tryAcquire_Disabled_ShouldAllow() {
+        LoginThrottle throttle = new LoginThrottle(false, Duration.ofMinutes(1), 1, 1, 10, new EmailNormalizer(), meterRegistry, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, throttle.tryAcquire("john@example.com", "10.0.0.1"));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.freshflower.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MPMC Ring Buffer Tests")
+class MpmcRingBufferTest {
+
+    @Test
+    @DisplayName("✅ Should hand items out in order and refuse them when full")
+    void offerAndPoll_ShouldBeFifoAndBounded() {
+        // Arrange
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+
+        // Act & Assert: several laps around the array
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(lap * 10 + i));
+            }
+            assertFalse(buffer.offer(99));
+            assertEquals(4, buffer.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(lap * 10 + i, buffer.poll());
+            }
+            assertNull(buffer.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a capacity that is not a power of two")
+    void constructor_InvalidCapacity_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingBuffer<>(6));
+    }
+
+    @Test
+    @DisplayName("✅ Should deliver every item exactly once across concurrent producers and consumers")
+    void concurrentUse_ShouldNotLoseOrDuplicate() throws Exception {
+        // Arrange
+        int producers = 4;
+        int perProducer = 50_000;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(256);
+        BitSet seen = new BitSet(producers * perProducer);
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + 2);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Act
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                while (received.get() < producers * perProducer) {
+                    Integer item = buffer.poll();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    synchronized (seen) {
+                        assertFalse(seen.get(item), "duplicate " + item);
+                        seen.set(item);
+                    }
+                    received.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(producers * perProducer, seen.cardinality());
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.freshflower.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password Hashing Executor Tests")
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("✅ Should run hashing work off the caller thread")
+    void submit_ShouldRunOnHashingThread() throws Exception {
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(threadName.startsWith("password-hash-"));
+    }
+
+    @Test
+    @DisplayName("❌ Should fail fast when the hashing queue is full")
+    void submit_WhenQueueIsFull_ShouldFailWithCapacityExceeded() throws Exception {
+        // Arrange: occupy the only worker and the only queue slot
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = executor.submit(() -> {
+            started.countDown();
+            return await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.submit(() -> true);
+
+        // Act
+        CompletableFuture<Boolean> rejected = executor.submit(() -> true);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        HashingCapacityExceededException cause =
+                assertInstanceOf(HashingCapacityExceededException.class, exception.getCause());
+        assertEquals(5, cause.getRetryAfterSeconds());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
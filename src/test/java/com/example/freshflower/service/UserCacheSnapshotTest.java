@@ -0,0 +1,194 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+import com.example.freshflower.repository.UserChangeRepository;
+import com.example.freshflower.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("User Cache Snapshot Tests")
+class UserCacheSnapshotTest {
+
+    private static final UserCredentials ALICE = new UserCredentials(1L, "alice@example.com", "$2a$10$alicehash");
+    private static final UserCredentials BOB = new UserCredentials(2L, "bob@example.com", "$2a$10$bobhash");
+
+    @TempDir
+    Path directory;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserChangeRepository userChangeRepository = mock(UserChangeRepository.class);
+    private final List<UserCacheSnapshot> snapshots = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (UserCacheSnapshot snapshot : snapshots) {
+            snapshot.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should restore the found users a previous node cached")
+    void writeThenRestore_ShouldWarmTheCache() throws Exception {
+        // Arrange: two found users and one unknown email
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        before.lookup("bob@example.com", () -> Optional.of(BOB));
+        before.lookup("nobody@example.com", Optional::empty);
+
+        // Act
+        int written = snapshot(before).write();
+        UserLookupCache after = cache();
+        int restored = snapshot(after).restore();
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals(2, restored);
+        assertEquals(Optional.of(ALICE), after.lookup("alice@example.com", () -> fail("should be restored")));
+        assertEquals(Optional.of(BOB), after.getIfPresent("bob@example.com"));
+        assertNull(after.getIfPresent("nobody@example.com"));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(path())));
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should drop a restored entry the database no longer agrees with")
+    void revalidate_ShouldCheckOnlyUsedEntries() throws Exception {
+        // Arrange: bob changed his password while the node was down
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        before.lookup("bob@example.com", () -> Optional.of(BOB));
+        snapshot(before).write();
+        UserLookupCache after = cache();
+        UserCacheSnapshot snapshot = snapshot(after);
+        snapshot.restore();
+        UserCredentials bobNow = new UserCredentials(2L, "bob@example.com", "$2a$10$newhash");
+        when(userRepository.findCredentialsByEmailNormalizedIn(anyCollection())).thenReturn(List.of(ALICE, bobNow));
+
+        // Act: nothing used yet, then both used
+        int idle = snapshot.revalidate();
+        after.getIfPresent("alice@example.com");
+        after.getIfPresent("bob@example.com");
+        int checked = snapshot.revalidate();
+
+        // Assert: one batched query; bob is loaded again on his next lookup
+        assertEquals(0, idle);
+        assertEquals(2, checked);
+        verify(userRepository, times(1)).findCredentialsByEmailNormalizedIn(anyCollection());
+        assertEquals(Optional.of(ALICE), after.getIfPresent("alice@example.com"));
+        assertNull(after.getIfPresent("bob@example.com"));
+        assertEquals(0, snapshot.revalidate());
+    }
+
+    @Test
+    @DisplayName("✅ Should not restore a user the change log shows changed while the node was down")
+    void restore_ChangedSinceSnapshot_ShouldSkipThatUser() throws Exception {
+        // Arrange: bob changed his password after the snapshot was written
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        before.lookup("bob@example.com", () -> Optional.of(BOB));
+        snapshot(before).write();
+        when(userChangeRepository.findEmailsChangedSince(any())).thenReturn(List.of("bob@example.com"));
+        UserLookupCache after = cache();
+        UserCredentials bobNow = new UserCredentials(2L, "bob@example.com", "$2a$10$newhash");
+
+        // Act
+        int restored = snapshot(after).restore();
+
+        // Assert: bob's first login goes to the database
+        assertEquals(1, restored);
+        assertEquals(Optional.of(ALICE), after.lookup("alice@example.com", () -> fail("should be restored")));
+        assertEquals(Optional.of(bobNow), after.lookup("bob@example.com", () -> Optional.of(bobNow)));
+    }
+
+    @Test
+    @DisplayName("❌ Should not restore a snapshot the change log does not cover")
+    void restore_ChangeLogDisabled_ShouldRestoreNothing() throws Exception {
+        // Arrange
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        snapshot(before).write();
+        UserLookupCache after = cache();
+
+        // Act
+        int restored = snapshot(after, false).restore();
+
+        // Assert
+        assertEquals(0, restored);
+        assertNull(after.getIfPresent("alice@example.com"));
+        verifyNoInteractions(userChangeRepository);
+    }
+
+    @Test
+    @DisplayName("❌ Should ignore a corrupted snapshot")
+    void restore_CorruptedFile_ShouldRestoreNothing() throws Exception {
+        // Arrange
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        snapshot(before).write();
+        byte[] bytes = Files.readAllBytes(path());
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path(), bytes);
+        UserLookupCache after = cache();
+
+        // Act
+        int restored = snapshot(after).restore();
+
+        // Assert
+        assertEquals(0, restored);
+        assertNull(after.getIfPresent("alice@example.com"));
+    }
+
+    @Test
+    @DisplayName("✅ Should keep the previous snapshot when the cache is empty")
+    void write_EmptyCache_ShouldNotOverwrite() throws Exception {
+        // Arrange
+        UserLookupCache before = cache();
+        before.lookup("alice@example.com", () -> Optional.of(ALICE));
+        snapshot(before).write();
+
+        // Act: a node that restarts and stops without serving anything
+        int written = snapshot(cache()).write();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(1, snapshot(cache()).read().entries().size());
+    }
+
+    private UserLookupCache cache() {
+        return new UserLookupCache(true, 1000, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private UserCacheSnapshot snapshot(UserLookupCache cache) {
+        return snapshot(cache, true);
+    }
+
+    private UserCacheSnapshot snapshot(UserLookupCache cache, boolean changeLogEnabled) {
+        UserCacheSnapshot snapshot = new UserCacheSnapshot(true, path(), Duration.ofHours(1), 100, Duration.ofHours(1),
+                Duration.ofHours(1), changeLogEnabled, Duration.ofHours(1), cache, userRepository, userChangeRepository,
+                new UserShards(false, List.of(), 0), new EmailNormalizer(), new SimpleMeterRegistry());
+        snapshots.add(snapshot);
+        return snapshot;
+    }
+
+    private Path path() {
+        return directory.resolve("user-cache.snapshot");
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.FreshflowerApplication;
+import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two instances sharing one H2 database: this test's context writes, a second application
+ * context started alongside it ("the other node") polls. Polls only happen when called.
+ */
+@SpringBootTest(properties = "freshflower.user-changes.poll-interval=1h")
+@ActiveProfiles("h2")
+@DisplayName("User Change Poller Tests")
+class UserChangePollerTest {
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Started once this context has created the schema; it must not create or drop it again
+    @BeforeEach
+    void startOtherNode() {
+        if (otherNode == null) {
+            // Arguments, so they win over the spring.profiles.active the build passes as a system property
+            otherNode = new SpringApplicationBuilder(FreshflowerApplication.class)
+                    .run("--spring.profiles.active=h2",
+                            "--server.port=0",
+                            "--spring.jpa.hibernate.ddl-auto=none",
+                            "--freshflower.user-changes.poll-interval=1h");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("delete from user_changes");
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        if (otherNode != null) {
+            otherNode.close();
+            otherNode = null;
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should let another node log in a user it had cached as unknown")
+    void poll_Registration_ShouldDropCachedMiss() {
+        // Arrange: the other node caches the miss
+        UserService other = otherNode.getBean(UserService.class);
+        assertInstanceOf(LoginResult.UnknownUser.class, other.login("bob@example.com", "Password123"));
+        Timer lag = otherNode.getBean(MeterRegistry.class).get("freshflower.user.changes.lag").timer();
+        long lagSamples = lag.count();
+
+        // Act
+        userService.registerUser(new User("bob@example.com", "Password123", "Bob"));
+        LoginResult beforePoll = other.login("bob@example.com", "Password123");
+        int applied = otherNode.getBean(UserChangePoller.class).poll();
+
+        // Assert
+        assertInstanceOf(LoginResult.UnknownUser.class, beforePoll);
+        assertEquals(1, applied);
+        assertInstanceOf(LoginResult.Success.class, other.login("bob@example.com", "Password123"));
+        assertEquals(lagSamples + 1, lag.count());
+    }
+
+    @Test
+    @DisplayName("✅ Should drop another node's cached hash after a password change")
+    void poll_PasswordChange_ShouldDropCachedCredentials() {
+        // Arrange
+        userService.registerUser(new User("alice@example.com", "Password123", "Alice"));
+        UserService other = otherNode.getBean(UserService.class);
+        otherNode.getBean(UserChangePoller.class).poll();
+        assertInstanceOf(LoginResult.Success.class, other.login("alice@example.com", "Password123"));
+
+        // Act: a password change written the way user writes are, with its change log row
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update users set password = ? where email_normalized = ?",
+                    passwordEncoder.encode("NewPassword456"), "alice@example.com");
+            userChangeLog.record("alice@example.com");
+        });
+        otherNode.getBean(UserChangePoller.class).poll();
+
+        // Assert
+        assertInstanceOf(LoginResult.BadCredentials.class, other.login("alice@example.com", "Password123"));
+        assertInstanceOf(LoginResult.Success.class, other.login("alice@example.com", "NewPassword456"));
+    }
+
+    @Test
+    @DisplayName("✅ Should apply a change that commits after a later one was already polled")
+    void poll_OutOfOrderCommit_ShouldRetryTheGap() throws Exception {
+        // Arrange: the other node has both emails cached
+        UserLookupCache otherCache = otherNode.getBean(UserLookupCache.class);
+        UserChangePoller poller = otherNode.getBean(UserChangePoller.class);
+        poller.poll();
+        otherCache.lookup("carol@example.com", () -> Optional.of(new UserCredentials(1L, "carol@example.com", "h")));
+        otherCache.lookup("dave@example.com", () -> Optional.of(new UserCredentials(2L, "dave@example.com", "h")));
+
+        // Act: carol's transaction takes the lower id but commits after dave's
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            userChangeLog.record("carol@example.com");
+            logged.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(logged.await(10, TimeUnit.SECONDS));
+        transactionTemplate.executeWithoutResult(status -> userChangeLog.record("dave@example.com"));
+        int first = poller.poll();
+        commit.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        int second = poller.poll();
+
+        // Assert
+        assertEquals(1, first);
+        assertNull(otherCache.getIfPresent("dave@example.com"));
+        assertEquals(1, second);
+        assertNull(otherCache.getIfPresent("carol@example.com"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "freshflower.import.batch-size=2")
+@ActiveProfiles("h2")
+@DisplayName("User Import Service Tests")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("✅ Should import valid NDJSON rows and report the rejected ones")
+    void importUsers_Ndjson_ShouldImportValidRowsAndReportErrors() throws Exception {
+        // Arrange
+        userRepository.saveAndFlush(new User("existing@example.com", passwordEncoder.encode("Password123"), "Existing"));
+        String preHashed = passwordEncoder.encode("PreHashed123");
+        String upload = String.join("\n",
+                "{\"email\":\"a@example.com\",\"password\":\"Password123\",\"fullName\":\"A\"}",
+                "{\"email\":\"b@example.com\",\"passwordHash\":\"" + preHashed + "\",\"fullName\":\"B\"}",
+                "",
+                "{\"email\":\"invalid-email\",\"password\":\"Password123\",\"fullName\":\"C\"}",
+                "{\"email\":\"A@example.com\",\"password\":\"Password123\",\"fullName\":\"A again\"}",
+                "{\"email\":\"existing@example.com\",\"password\":\"Password123\",\"fullName\":\"E\"}",
+                "{not json",
+                "{\"email\":\"d@example.com\",\"password\":\"short\",\"fullName\":\"D\"}",
+                "{\"email\":\"f@example.com\",\"password\":\"Password123\",\"fullName\":\"F\"}");
+
+        // Act
+        ImportReport report = userImportService.importUsers(stream(upload), ImportFormat.NDJSON);
+
+        // Assert
+        assertEquals(3, report.imported());
+        assertEquals(5, report.failed());
+        assertFalse(report.errorsTruncated());
+        assertEquals(List.of(
+                new ImportReport.RowError(4, "invalid-email", "Invalid email format"),
+                new ImportReport.RowError(5, "A@example.com", "Duplicate email in upload"),
+                new ImportReport.RowError(7, null, "Malformed JSON"),
+                new ImportReport.RowError(8, "d@example.com", "Password must be at least 8 characters long"),
+                new ImportReport.RowError(6, "existing@example.com", "Email already exists")),
+                report.errors());
+        assertEquals(4, userRepository.count());
+        assertEquals("b@example.com", assertInstanceOf(LoginResult.Success.class,
+                userService.login("b@example.com", "PreHashed123")).credentials().email());
+        assertEquals("a@example.com", assertInstanceOf(LoginResult.Success.class,
+                userService.login("a@example.com", "Password123")).credentials().email());
+    }
+
+    @Test
+    @DisplayName("✅ Should import CSV with quoted fields")
+    void importUsers_Csv_ShouldImportRows() throws Exception {
+        // Arrange
+        String upload = String.join("\n",
+                "email,password,full_name",
+                "csv1@example.com,Password123,\"Doe, Jane\"",
+                "csv2@example.com,Password123,\"John \"\"JJ\"\" Smith\"",
+                "csv3@example.com,Password123,\"unterminated");
+
+        // Act
+        ImportReport report = userImportService.importUsers(stream(upload), ImportFormat.CSV);
+
+        // Assert
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals("Malformed CSV row", report.errors().get(0).message());
+        assertEquals("Doe, Jane", userRepository.findByEmail("csv1@example.com").orElseThrow().getFullName());
+        assertEquals("John \"JJ\" Smith", userRepository.findByEmail("csv2@example.com").orElseThrow().getFullName());
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a CSV upload without the required columns")
+    void importUsers_CsvWithoutHeader_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(stream("email,name\na@example.com,A"), ImportFormat.CSV));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.UserCredentials;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Lookup Cache Tests")
+class UserLookupCacheTest {
+
+    private final UserLookupCache cache = new UserLookupCache(true, 100, Duration.ofMinutes(10),
+            Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("✅ Should load once per normalized email")
+    void lookup_ShouldCacheByNormalizedEmail() {
+        UserCredentials user = new UserCredentials(1L, "user@example.com", "encodedPassword");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.lookup("user@example.com", () -> { loads.incrementAndGet(); return Optional.of(user); });
+        Optional<UserCredentials> second = cache.lookup("  User@Example.com ", () -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertEquals(1, loads.get());
+        assertSame(user, second.orElseThrow());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(Optional.of(true), cache.cachedPresence("user@example.com"));
+    }
+
+    @Test
+    @DisplayName("✅ Should cache unknown emails until a user is saved with that email")
+    void lookup_ShouldCacheNegativeResultUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.lookup("new@example.com", () -> { loads.incrementAndGet(); return Optional.empty(); });
+        cache.lookup("new@example.com", () -> { loads.incrementAndGet(); return Optional.empty(); });
+        assertEquals(1, loads.get());
+        assertEquals(Optional.of(false), cache.cachedPresence("new@example.com"));
+
+        cache.invalidate("New@example.com");
+
+        assertEquals(Optional.empty(), cache.cachedPresence("new@example.com"));
+        Optional<UserCredentials> reloaded = cache.lookup("new@example.com",
+                () -> Optional.of(new UserCredentials(2L, "new@example.com", "encodedPassword")));
+        assertTrue(reloaded.isPresent());
+    }
+
+    @Test
+    @DisplayName("✅ Should pass straight through to the loader when disabled")
+    void lookup_WhenDisabled_ShouldAlwaysLoad() {
+        UserLookupCache disabled = new UserLookupCache(false, 0, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        disabled.lookup("user@example.com", () -> { loads.incrementAndGet(); return Optional.empty(); });
+        disabled.lookup("user@example.com", () -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertEquals(2, loads.get());
+        assertEquals(Optional.empty(), disabled.cachedPresence("user@example.com"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.freshflower.service;
+
+import com.example.freshflower.model.User;
+import com.example.freshflower.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("User Service Concurrency Tests")
+class UserServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("✅ Should register exactly one user when the same email signs up concurrently")
+    void registerUser_ConcurrentDuplicates_ShouldInsertOnceAndReportDuplicates() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> outcomes = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < THREADS; i++) {
+            outcomes.add(pool.submit(() -> {
+                start.await();
+                try {
+                    userService.registerUser(new User("race@example.com", "Password123", "Race User"));
+                    return "registered";
+                } catch (EmailAlreadyExistsException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        start.countDown();
+
+        List<String> results = new ArrayList<>();
+        for (Future<String> outcome : outcomes) {
+            results.add(outcome.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1, results.stream().filter("registered"::equals).count());
+        assertEquals(THREADS - 1, results.stream().filter("Email already exists"::equals).count());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("❌ Should report duplicate email on a later sign-up")
+    void registerUser_SequentialDuplicate_ShouldThrowEmailAlreadyExists() {
+        userService.registerUser(new User("dup@example.com", "Password123", "First User"));
+
+        EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.registerUser(new User("dup@example.com", "Password123", "Second User")));
+
+        assertEquals("Email already exists", exception.getMessage());
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.freshflower.service;
 
+import com.example.freshflower.config.ReadYourWritesWindow;
 import com.example.freshflower.model.User;
 import com.example.freshflower.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +31,37 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserLookupCache userLookupCache =
+            new UserLookupCache(false, 0, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+
+    @Spy
+    private EmailNormalizer emailNormalizer = new EmailNormalizer();
+
+    @Spy
+    private UserValidator userValidator = new UserValidator(new EmailNormalizer());
+
+    @Mock
+    private EmailNormalizedBackfill emailNormalizedBackfill;
+
+    @Spy
+    private ReadYourWritesWindow readYourWritesWindow = new ReadYourWritesWindow(false, Duration.ZERO);
+
+    @Spy
+    private UserShards userShards = new UserShards(false, List.of(), 0);
+
+    @Mock
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Mock
+    private UserChangeLog userChangeLog;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -36,14 +75,14 @@ class UserServiceTest {
     @Test
     void registerUser_WithValidData_ShouldSaveUser() {
         when(passwordEncoder.encode(any(String.class))).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         User result = userService.registerUser(testUser);
 
         assertNotNull(result);
         assertEquals("test@example.com", result.getEmail());
         verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(testUser);
+        verify(userRepository).saveAndFlush(testUser);
     }
 
     @Test
@@ -1,17 +1,30 @@
 package com.example.freshflower.service;
 
+import com.example.freshflower.config.ReadYourWritesWindow;
 import com.example.freshflower.model.User;
+import com.example.freshflower.model.UserCredentials;
 import com.example.freshflower.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,17 +41,65 @@ class UserServiceUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserLookupCache userLookupCache =
+            new UserLookupCache(false, 0, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+
+    @Spy
+    private EmailNormalizer emailNormalizer = new EmailNormalizer();
+
+    @Spy
+    private UserValidator userValidator = new UserValidator(new EmailNormalizer());
+
+    @Mock
+    private EmailNormalizedBackfill emailNormalizedBackfill;
+
+    @Spy
+    private ReadYourWritesWindow readYourWritesWindow = new ReadYourWritesWindow(false, Duration.ZERO);
+
+    @Spy
+    private UserShards userShards = new UserShards(false, List.of(), 0);
+
+    @Mock
+    private LoginActivityRecorder loginActivityRecorder;
+
+    @Mock
+    private UserChangeLog userChangeLog;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 4, 1);
+
+    @Spy
+    private DatabaseWorkExecutor databaseWorkExecutor = new DatabaseWorkExecutor(1, 4, 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+
     @InjectMocks
     private UserService userService;
 
     private User validUser;
     private User existingUser;
+    private UserCredentials existingCredentials;
 
     @BeforeEach
     void setUp() {
         validUser = new User("test@example.com", "password123", "John Doe");
         existingUser = new User("existing@example.com", "encodedPassword", "Jane Smith");
         existingUser.setId(1L);
+        existingUser.setEmailNormalized("existing@example.com");
+        existingCredentials = new UserCredentials(1L, "existing@example.com", "encodedPassword");
+        lenient().when(emailNormalizedBackfill.isComplete()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
     }
 
     @Test
@@ -46,7 +107,7 @@ class UserServiceUnitTest {
     void registerUser_WithValidData_ShouldSaveUserWithEncodedPassword() {
         // Arrange
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User userToSave = invocation.getArgument(0);
             userToSave.setId(1L);
             return userToSave;
@@ -63,7 +124,24 @@ class UserServiceUnitTest {
         assertEquals("John Doe", result.getFullName());
 
         verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(validUser);
+        verify(userRepository).saveAndFlush(validUser);
+    }
+
+    @Test
+    @DisplayName("✅ Should store the normalized email alongside the email as typed")
+    void registerUser_WithMixedCaseEmail_ShouldStoreNormalizedEmail() {
+        // Arrange
+        validUser.setEmail("  Test@Example.COM ");
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        User result = userService.registerUser(validUser);
+
+        // Assert
+        assertEquals("Test@Example.COM", result.getEmail());
+        assertEquals("test@example.com", result.getEmailNormalized());
+        verify(readYourWritesWindow).recordWrite("test@example.com");
     }
 
     @Test
@@ -77,7 +155,7 @@ class UserServiceUnitTest {
                 () -> userService.registerUser(validUser));
 
         assertEquals("Email cannot be null or empty", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -91,7 +169,7 @@ class UserServiceUnitTest {
                 () -> userService.registerUser(validUser));
 
         assertEquals("Invalid email format", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -105,7 +183,7 @@ class UserServiceUnitTest {
                 () -> userService.registerUser(validUser));
 
         assertEquals("Password must be at least 8 characters long", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -116,83 +194,194 @@ class UserServiceUnitTest {
                 () -> userService.registerUser(null));
 
         assertEquals("User cannot be null", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("❌ Should report duplicate email when the unique constraint rejects the insert")
+    void registerUser_WithDuplicateEmail_ShouldThrowEmailAlreadyExists() {
+        // Arrange
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(userRepository.existsByEmailNormalized("test@example.com")).thenReturn(true);
+
+        // Act & Assert
+        EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.registerUser(validUser));
+
+        assertEquals("Email already exists", exception.getMessage());
+        verify(readYourWritesWindow, never()).recordWrite(anyString());
+        assertEquals(1, outcomes("register", "duplicate_email"));
+        assertEquals(1, phaseCount("persist"));
+    }
+
+    @Test
+    @DisplayName("❌ Should rethrow integrity violations that are not duplicate emails")
+    void registerUser_WithOtherIntegrityViolation_ShouldRethrow() {
+        // Arrange
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Value too long"));
+        when(userRepository.existsByEmailNormalized("test@example.com")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> userService.registerUser(validUser));
     }
 
     @Test
     @DisplayName("✅ Should login user successfully with valid credentials")
     void login_WithValidCredentials_ShouldReturnUser() throws Exception {
         // Arrange
-        when(userRepository.findByEmail("existing@example.com"))
-                .thenReturn(Optional.of(existingUser));
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
         when(passwordEncoder.matches("correctPassword", "encodedPassword"))
                 .thenReturn(true);
 
         // Act
-        User result = userService.login("existing@example.com", "correctPassword");
+        LoginResult result = userService.login("existing@example.com", "correctPassword");
 
         // Assert
-        assertNotNull(result);
-        assertEquals("existing@example.com", result.getEmail());
-        verify(userRepository).findByEmail("existing@example.com");
+        assertEquals("existing@example.com", assertInstanceOf(LoginResult.Success.class, result).credentials().email());
+        verify(userRepository).findCredentialsByEmailNormalized("existing@example.com");
         verify(passwordEncoder).matches("correctPassword", "encodedPassword");
     }
 
     @Test
-    @DisplayName("❌ Should throw exception when login with non-existent email")
-    void login_WithNonExistentEmail_ShouldThrowException() {
+    @DisplayName("✅ Should re-hash an outdated password hash after a successful login")
+    void login_WithOutdatedHash_ShouldRehashInBackground() throws Exception {
+        // Arrange
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
+        when(passwordEncoder.matches("correctPassword", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("correctPassword")).thenReturn("strongerPassword");
+        AtomicReference<String> updateThread = new AtomicReference<>();
+        when(userRepository.updatePasswordHash(1L, "encodedPassword", "strongerPassword")).thenAnswer(invocation -> {
+            updateThread.set(Thread.currentThread().getName());
+            return 1;
+        });
+
+        // Act
+        userService.login("existing@example.com", "correctPassword");
+
+        // Assert
+        verify(userRepository, timeout(5000)).updatePasswordHash(1L, "encodedPassword", "strongerPassword");
+        verify(userLookupCache, timeout(5000)).invalidate("existing@example.com");
+        assertTrue(updateThread.get().startsWith("database-work-"), updateThread.get());
+    }
+
+    @Test
+    @DisplayName("❌ Should report an unknown user when login with non-existent email")
+    void login_WithNonExistentEmail_ShouldReturnUnknownUser() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com"))
+        when(userRepository.findCredentialsByEmailNormalized("nonexistent@example.com"))
                 .thenReturn(Optional.empty());
 
-        // Act & Assert
-        Exception exception = assertThrows(Exception.class,
-                () -> userService.login("nonexistent@example.com", "password"));
+        // Act
+        LoginResult result = userService.login("nonexistent@example.com", "password");
 
-        assertEquals("User not found", exception.getMessage());
-        verify(userRepository).findByEmail("nonexistent@example.com");
+        // Assert
+        assertInstanceOf(LoginResult.UnknownUser.class, result);
+        assertEquals("User not found", result.message());
+        verify(userRepository).findCredentialsByEmailNormalized("nonexistent@example.com");
         verify(passwordEncoder, never()).matches(anyString(), anyString());
+        assertEquals(1, outcomes("login", "unknown_user"));
+        assertEquals(1, phaseCount("lookup"));
     }
 
     @Test
-    @DisplayName("❌ Should throw exception when login with incorrect password")
-    void login_WithIncorrectPassword_ShouldThrowException() {
+    @DisplayName("✅ Should look up the normalized email on login")
+    void login_WithMixedCaseEmail_ShouldLookUpNormalizedEmail() throws Exception {
         // Arrange
-        when(userRepository.findByEmail("existing@example.com"))
-                .thenReturn(Optional.of(existingUser));
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
+        when(passwordEncoder.matches("correctPassword", "encodedPassword"))
+                .thenReturn(true);
+
+        // Act
+        LoginResult result = userService.login(" Existing@Example.com", "correctPassword");
+
+        // Assert
+        assertEquals(1L, assertInstanceOf(LoginResult.Success.class, result).credentials().id());
+        verify(userRepository).findCredentialsByEmailNormalized("existing@example.com");
+        assertEquals(1, outcomes("login", "success"));
+    }
+
+    @Test
+    @DisplayName("✅ Should log in an account registered under the original, looser email rule")
+    void login_WithLegacyEmail_ShouldFallBackToRawEmail() throws Exception {
+        // Arrange: the domain has an underscore, so the backfill hasn't set email_normalized yet
+        UserCredentials legacy = new UserCredentials(7L, "legacy@my_domain.com", "encodedPassword");
+        when(emailNormalizedBackfill.isComplete()).thenReturn(false);
+        when(userRepository.findCredentialsByEmailNormalized("legacy@my_domain.com")).thenReturn(Optional.empty());
+        when(userRepository.findCredentialsByEmail("legacy@my_domain.com")).thenReturn(Optional.of(legacy));
+        when(passwordEncoder.matches("correctPassword", "encodedPassword")).thenReturn(true);
+
+        // Act
+        LoginResult result = userService.login("Legacy@My_Domain.com", "correctPassword");
+
+        // Assert
+        assertEquals(7L, assertInstanceOf(LoginResult.Success.class, result).credentials().id());
+        assertEquals(0, outcomes("login", "validation_failure"));
+        assertEquals(1, outcomes("login", "success"));
+    }
+
+    @Test
+    @DisplayName("❌ Should not query the database when login email is malformed")
+    void login_WithMalformedEmail_ShouldFailWithoutLookup() {
+        // Act
+        LoginResult result = userService.login("not an email", "password");
+
+        // Assert
+        assertInstanceOf(LoginResult.UnknownUser.class, result);
+        verifyNoInteractions(userRepository);
+        assertEquals(1, outcomes("login", "validation_failure"));
+        assertEquals(0, outcomes("login", "unknown_user"));
+    }
+
+    @Test
+    @DisplayName("❌ Should report bad credentials when login with incorrect password")
+    void login_WithIncorrectPassword_ShouldReturnBadCredentials() {
+        // Arrange
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
         when(passwordEncoder.matches("wrongPassword", "encodedPassword"))
                 .thenReturn(false);
 
-        // Act & Assert
-        Exception exception = assertThrows(Exception.class,
-                () -> userService.login("existing@example.com", "wrongPassword"));
+        // Act
+        LoginResult result = userService.login("existing@example.com", "wrongPassword");
 
-        assertEquals("Invalid password", exception.getMessage());
+        // Assert
+        assertInstanceOf(LoginResult.BadCredentials.class, result);
+        assertEquals("Invalid password", result.message());
         verify(passwordEncoder).matches("wrongPassword", "encodedPassword");
+        assertEquals(1, outcomes("login", "bad_password"));
+        assertEquals(1, phaseCount("hash_verify"));
     }
 
     @Test
     @DisplayName("✅ Should check if email exists")
     void emailExists_ShouldReturnTrueWhenEmailExists() {
         // Arrange
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(userRepository.existsByEmailNormalized("existing@example.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("new@example.com")).thenReturn(false);
 
         // Act & Assert
         assertTrue(userService.emailExists("existing@example.com"));
         assertFalse(userService.emailExists("new@example.com"));
 
-        verify(userRepository).existsByEmail("existing@example.com");
-        verify(userRepository).existsByEmail("new@example.com");
+        verify(userRepository).existsByEmailNormalized("existing@example.com");
+        verify(userRepository).existsByEmailNormalized("new@example.com");
     }
 
     @Test
     @DisplayName("✅ Should find user by email")
     void findByEmail_ShouldReturnUserWhenExists() {
         // Arrange
-        when(userRepository.findByEmail("existing@example.com"))
+        when(userRepository.findByEmailNormalized("existing@example.com"))
                 .thenReturn(Optional.of(existingUser));
-        when(userRepository.findByEmail("nonexistent@example.com"))
+        when(userRepository.findByEmailNormalized("nonexistent@example.com"))
                 .thenReturn(Optional.empty());
 
         // Act
@@ -204,4 +393,95 @@ class UserServiceUnitTest {
         assertEquals("existing@example.com", foundUser.getEmail());
         assertNull(notFoundUser);
     }
+
+    @Test
+    @DisplayName("✅ Should fall back to the raw email column until the backfill completes")
+    void findByEmail_BeforeBackfillCompletes_ShouldFallBackToRawColumn() {
+        // Arrange
+        when(emailNormalizedBackfill.isComplete()).thenReturn(false);
+        when(userRepository.findByEmailNormalized("existing@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("existing@example.com")).thenReturn(Optional.of(existingUser));
+
+        // Act
+        User foundUser = userService.findByEmail("Existing@Example.com");
+
+        // Assert
+        assertSame(existingUser, foundUser);
+    }
+
+    @Test
+    @DisplayName("✅ Should register user asynchronously, hashing and inserting on their own executors")
+    void registerUserAsync_WithValidData_ShouldEncodeOffCallerThread() throws Exception {
+        // Arrange
+        when(passwordEncoder.encode("password123")).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("password-hash-"));
+            return "encodedPassword";
+        });
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("database-work-"));
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        User result = userService.registerUserAsync(validUser).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("encodedPassword", result.getPassword());
+        verify(userRepository).saveAndFlush(validUser);
+    }
+
+    @Test
+    @DisplayName("❌ Should fail async registration without hashing when data is invalid")
+    void registerUserAsync_WithInvalidEmail_ShouldFailWithoutHashing() {
+        // Arrange
+        validUser.setEmail("invalid-email");
+
+        // Act & Assert
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> userService.registerUserAsync(validUser).get(5, TimeUnit.SECONDS));
+
+        assertEquals("Invalid email format", exception.getCause().getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("✅ Should login user asynchronously with valid credentials")
+    void loginAsync_WithValidCredentials_ShouldReturnUser() throws Exception {
+        // Arrange
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
+        when(passwordEncoder.matches("correctPassword", "encodedPassword"))
+                .thenReturn(true);
+
+        // Act
+        LoginResult result = userService.loginAsync("existing@example.com", "correctPassword").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1L, assertInstanceOf(LoginResult.Success.class, result).credentials().id());
+    }
+
+    @Test
+    @DisplayName("❌ Should complete async login with bad credentials, not an exception")
+    void loginAsync_WithIncorrectPassword_ShouldReturnBadCredentials() throws Exception {
+        // Arrange
+        when(userRepository.findCredentialsByEmailNormalized("existing@example.com"))
+                .thenReturn(Optional.of(existingCredentials));
+        when(passwordEncoder.matches("wrongPassword", "encodedPassword"))
+                .thenReturn(false);
+
+        // Act
+        LoginResult result = userService.loginAsync("existing@example.com", "wrongPassword").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertInstanceOf(LoginResult.BadCredentials.class, result);
+    }
+
+    private double outcomes(String operation, String outcome) {
+        return meterRegistry.get("freshflower.auth.outcomes")
+                .tag("operation", operation).tag("outcome", outcome).counter().count();
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get("freshflower.auth.phase").tag("phase", phase).timer().count();
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.freshflower.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Shards Tests")
+class UserShardsTest {
+
+    private static final int EMAILS = 20_000;
+
+    @Test
+    @DisplayName("✅ Should spread emails evenly over the shards")
+    void shardFor_ShouldSpreadEvenly() {
+        // Act
+        int[] counts = new int[4];
+        for (int i = 0; i < EMAILS; i++) {
+            counts[UserShards.shardFor("user" + i + "@example.com", 4)]++;
+        }
+
+        // Assert: within 10% of a quarter each
+        for (int count : counts) {
+            assertEquals(EMAILS / 4.0, count, EMAILS / 40.0);
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should only move emails to the new shard when one is added")
+    void shardFor_AddingShard_ShouldMoveMinimally() {
+        // Act
+        int moved = 0;
+        for (int i = 0; i < EMAILS; i++) {
+            String email = "user" + i + "@example.com";
+            int before = UserShards.shardFor(email, 3);
+            int after = UserShards.shardFor(email, 4);
+            if (before != after) {
+                assertEquals(3, after, email);
+                moved++;
+            }
+        }
+
+        // Assert: about a quarter moved
+        assertEquals(EMAILS / 4.0, moved, EMAILS / 40.0);
+    }
+
+    @Test
+    @DisplayName("✅ Should report the previous shard only for emails that moved")
+    void previousShardFor_WhileRebalancing_ShouldPointToOldHome() {
+        // Arrange: two shards grown to three
+        UserShards shards = new UserShards(true, List.of("jdbc:shard1", "jdbc:shard2"), 2);
+
+        // Act & Assert
+        assertTrue(shards.isRebalancing());
+        for (int i = 0; i < 1_000; i++) {
+            String email = "user" + i + "@example.com";
+            int previous = shards.previousShardFor(email);
+            if (shards.shardFor(email) == UserShards.shardFor(email, 2)) {
+                assertEquals(-1, previous);
+            } else {
+                assertEquals(UserShards.shardFor(email, 2), previous);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should use a single shard when sharding is disabled")
+    void disabled_ShouldHaveOneShard() {
+        // Arrange
+        UserShards shards = new UserShards(false, List.of("jdbc:ignored"), 2);
+
+        // Act & Assert
+        assertEquals(1, shards.count());
+        assertFalse(shards.isRebalancing());
+        assertEquals(0, shards.shardFor("anyone@example.com"));
+        assertEquals("ran", shards.onShardFor("anyone@example.com", () -> "ran"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.freshflower.steps;
 
 import com.example.freshflower.model.User;
+import com.example.freshflower.service.LoginResult;
 import com.example.freshflower.service.UserService;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
@@ -17,8 +18,7 @@ public class UserLoginSteps {
 
     private String loginEmail;
     private String loginPassword;
-    private User loginResult;
-    private Exception loginException;
+    private LoginResult loginResult;
 
     @Given("the login system is ready")
     public void the_login_system_is_ready() {
@@ -38,29 +38,22 @@ public class UserLoginSteps {
     public void i_login_with_credentials(String email, String password) {
         this.loginEmail = email;
         this.loginPassword = password;
-        try {
-            loginResult = userService.login(email, password);
-            loginException = null;
-        } catch (Exception e) {
-            loginException = e;
-            loginResult = null;
-        }
+        loginResult = userService.login(email, password);
     }
 
     @Then("the login should be successful")
     public void the_login_should_be_successful() {
-        assertNull(loginException, "Expected no exception but got: " +
-                (loginException != null ? loginException.getMessage() : "null"));
-        assertNotNull(loginResult, "Login result should not be null");
-        assertEquals(loginEmail, loginResult.getEmail(),
+        LoginResult.Success success = assertInstanceOf(LoginResult.Success.class, loginResult,
+                "Expected a successful login but got: " + loginResult.message());
+        assertEquals(loginEmail, success.credentials().email(),
                 "Logged in user email should match");
     }
 
     @Then("the login should fail with error {string}")
     public void the_login_should_fail_with_error(String expectedError) {
-        assertNotNull(loginException, "An exception should be thrown");
-        assertTrue(loginException.getMessage().contains(expectedError),
+        assertFalse(loginResult instanceof LoginResult.Success, "The login should not succeed");
+        assertTrue(loginResult.message().contains(expectedError),
                 "Expected error to contain: '" + expectedError +
-                        "' but got: '" + loginException.getMessage() + "'");
+                        "' but got: '" + loginResult.message() + "'");
     }
 }
@@ -0,0 +1,14 @@
+-- H2 copy of db/migration/mysql for tests and benchmarks; keep the two in step
+create table users (
+    id bigint not null,
+    created_at timestamp(6),
+    email varchar(100) not null,
+    email_normalized varchar(100),
+    full_name varchar(150) not null,
+    password varchar(255) not null,
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_email_normalized unique (email_normalized)
+);
+
+create sequence users_seq start with 1 increment by 50;
@@ -0,0 +1,3 @@
+-- H2 copy of db/migration/mysql/V2__add_login_activity.sql
+alter table users add column last_login_at timestamp(6);
+alter table users add column login_count bigint default 0 not null;
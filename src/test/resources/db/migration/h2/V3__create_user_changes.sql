@@ -0,0 +1,9 @@
+-- H2 copy of db/migration/mysql/V3__create_user_changes.sql
+create table user_changes (
+    id bigint generated by default as identity,
+    changed_at timestamp(6) not null,
+    email_normalized varchar(100) not null,
+    primary key (id)
+);
+
+create index idx_user_changes_changed_at on user_changes (changed_at);
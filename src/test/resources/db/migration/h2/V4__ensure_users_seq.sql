@@ -0,0 +1,2 @@
+-- H2 copy of db/migration/mysql/V4__ensure_users_seq.sql
+create sequence if not exists users_seq start with 1 increment by 50;
@@ -0,0 +1,4 @@
+-- H2 copy of db/migration/mysql/V5__ensure_email_normalized.sql
+alter table users add column if not exists email_normalized varchar(100);
+
+alter table users add constraint if not exists uk_users_email_normalized unique (email_normalized);
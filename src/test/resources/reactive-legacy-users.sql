@@ -0,0 +1,4 @@
+-- Rows no servlet node has backfilled yet (email_normalized unset); the password is Password123
+insert into users (id, email, email_normalized, full_name, password, login_count)
+values (100001, 'reactive.unbackfilled@example.com', null, 'Unbackfilled', '$2a$04$.8LBtKszJJWK2jLBG8BkpOycfZg8q35h/h7Z9cKTp//fTedQm5Q5G', 0),
+       (100002, 'reactive.legacy@my_domain.com', null, 'Legacy', '$2a$04$.8LBtKszJJWK2jLBG8BkpOycfZg8q35h/h7Z9cKTp//fTedQm5Q5G', 0);
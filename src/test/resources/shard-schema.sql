@@ -0,0 +1,19 @@
+-- Schema for the H2 databases standing in for shards 1..n (Hibernate only creates shard 0's)
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    email_normalized VARCHAR(100) UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(150) NOT NULL,
+    created_at TIMESTAMP,
+    last_login_at TIMESTAMP,
+    login_count BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_changes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email_normalized VARCHAR(100) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;